@@ -0,0 +1,45 @@
+package com.lavexpress.laveexpress.benchmarks;
+
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.entities.Veiculo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+// Dados fixos (sem aleatoriedade) para que as execuções sejam comparáveis entre si
+final class Amostras {
+
+    private Amostras() {
+    }
+
+    static Usuario usuario() {
+        return new Usuario(null, "Maria da Silva", "maria@lavexpress.com", "{bcrypt}$2a$12$abcdefghijklmnopqrstuv",
+                "123.456.789-00", "(61) 99999-0000", "/fotos/maria.jpg", new ArrayList<>());
+    }
+
+    static LavaJato lavaJato(Usuario proprietario) {
+        LavaJato lavaJato = new LavaJato(null, "Lava Rápido Central", "SQN 210 Bloco A", "(61) 3333-0000",
+                "central@lavexpress.com", "12.345.678/0001-90", proprietario);
+        lavaJato.setLatitude(-15.7801);
+        lavaJato.setLongitude(-47.9292);
+        lavaJato.setQuantidadeBoxes(3);
+        return lavaJato;
+    }
+
+    static Servico servico(LavaJato lavaJato) {
+        return new Servico("Lavagem completa com cera", "completa", 80.0, lavaJato);
+    }
+
+    static Veiculo veiculo(int indice, Usuario proprietario) {
+        return new Veiculo(null, String.format("ABC%04d", indice), "Onix", "2022", "Chevrolet", proprietario);
+    }
+
+    static Agendamento agendamento(Servico servico, Usuario usuario, LavaJato lavaJato, LocalDateTime horario, int box) {
+        Agendamento agendamento = new Agendamento(horario, servico.getValor(), servico.getTipo(), servico, usuario, lavaJato);
+        agendamento.setBox(box);
+        return agendamento;
+    }
+}
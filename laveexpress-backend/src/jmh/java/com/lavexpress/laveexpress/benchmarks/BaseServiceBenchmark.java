@@ -0,0 +1,133 @@
+package com.lavexpress.laveexpress.benchmarks;
+
+import com.lavexpress.laveexpress.LavexpressApplication;
+import com.lavexpress.laveexpress.dtos.HorarioDisponivelDto;
+import com.lavexpress.laveexpress.dtos.VeiculoFilter;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.entities.Veiculo;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import com.lavexpress.laveexpress.services.AgendamentoService;
+import com.lavexpress.laveexpress.services.DisponibilidadeIndex;
+import com.lavexpress.laveexpress.services.VeiculoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Sobe a aplicação inteira (perfil jmh, H2 em memória) para medir o caminho real: proxy
+// transacional, repositório Spring Data e Hibernate.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BaseServiceBenchmark {
+
+    private static final int VEICULOS = 1000;
+
+    private static final int FROTA = 50;
+
+    private ConfigurableApplicationContext contexto;
+
+    private VeiculoService veiculoService;
+
+    private AgendamentoService agendamentoService;
+
+    private Usuario usuario;
+
+    private LavaJato lavaJato;
+
+    private LocalDate amanha;
+
+    private long primeiroVeiculoId;
+
+    private int proximaBusca;
+
+    private int proximaPlaca = VEICULOS;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(LavexpressApplication.class)
+                .profiles("jmh")
+                .logStartupInfo(false)
+                .run();
+        veiculoService = contexto.getBean(VeiculoService.class);
+        agendamentoService = contexto.getBean(AgendamentoService.class);
+
+        usuario = contexto.getBean(UsuarioRepository.class).save(Amostras.usuario());
+        lavaJato = contexto.getBean(LavaJatoRepository.class).save(Amostras.lavaJato(usuario));
+        Servico servico = contexto.getBean(ServicoRepository.class).save(Amostras.servico(lavaJato));
+
+        List<Veiculo> veiculos = IntStream.range(0, VEICULOS).mapToObj(i -> Amostras.veiculo(i, usuario)).toList();
+        primeiroVeiculoId = veiculoService.saveAll(veiculos).get(0).getId();
+
+        // Meia agenda ocupada no dia seguinte para a disponibilidade não ser trivial
+        amanha = LocalDate.now().plusDays(1);
+        AgendamentoRepository agendamentoRepository = contexto.getBean(AgendamentoRepository.class);
+        IntStream.range(0, 20).forEach(slot -> agendamentoRepository.save(Amostras.agendamento(servico, usuario, lavaJato,
+                amanha.atTime(8, 0).plusMinutes(30L * slot), 1 + slot % 3)));
+        contexto.getBean(DisponibilidadeIndex.class).reconstruir();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Veiculo salvar() {
+        return veiculoService.saveWithReturn(Amostras.veiculo(proximaPlaca++, usuario));
+    }
+
+    @Benchmark
+    public List<Veiculo> salvarFrota() {
+        List<Veiculo> frota = IntStream.range(0, FROTA)
+                .mapToObj(i -> Amostras.veiculo(proximaPlaca++, null))
+                .toList();
+        return veiculoService.salvarFrota(usuario.getId(), frota);
+    }
+
+    @Benchmark
+    public Optional<Veiculo> buscarPorId() {
+        proximaBusca = (proximaBusca + 1) % VEICULOS;
+        return veiculoService.findById(primeiroVeiculoId + proximaBusca);
+    }
+
+    @Benchmark
+    public Page<Veiculo> listarPagina() {
+        return veiculoService.findAll(10, 20, new VeiculoFilter(usuario.getId(), null, null));
+    }
+
+    @Benchmark
+    public List<Veiculo> listarAPartirDoCursor() {
+        return veiculoService.findAfter(primeiroVeiculoId + 200, 20, new VeiculoFilter(usuario.getId(), null, null));
+    }
+
+    @Benchmark
+    public List<HorarioDisponivelDto> disponibilidade() {
+        return agendamentoService.disponiveis(lavaJato.getId(), amanha);
+    }
+}
@@ -0,0 +1,82 @@
+package com.lavexpress.laveexpress.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lavexpress.laveexpress.dtos.AgendamentoDto;
+import com.lavexpress.laveexpress.dtos.HorarioDisponivelDto;
+import com.lavexpress.laveexpress.dtos.LavaJatoDto;
+import com.lavexpress.laveexpress.dtos.PaginaDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonBenchmark {
+
+    // Mesma configuração que o Spring Boot aplica ao ObjectMapper da aplicação
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private AgendamentoDto agendamento;
+
+    private String agendamentoJson;
+
+    private PaginaDto<LavaJatoDto> pagina;
+
+    private List<HorarioDisponivelDto> disponibilidade;
+
+    @Setup
+    public void preparar() throws JsonProcessingException {
+        agendamento = new AgendamentoDto(5L, LocalDateTime.of(2025, 6, 2, 9, 30), 80.0, "completa", 1, 3L, 1L, 2L);
+        agendamentoJson = objectMapper.writeValueAsString(agendamento);
+        pagina = new PaginaDto<>(IntStream.range(0, 20)
+                .mapToObj(i -> new LavaJatoDto((long) i, "Lava Rápido " + i, "SQN 210 Bloco " + i, "(61) 3333-0000",
+                        "lavajato" + i + "@lavexpress.com", "12.345.678/0001-90", -15.78 + i * 0.01, -47.92,
+                        3, LocalTime.of(8, 0), LocalTime.of(18, 0), 30, 1L))
+                .toList(), 1000L, 19L);
+        disponibilidade = IntStream.range(0, 20)
+                .mapToObj(i -> new HorarioDisponivelDto(LocalTime.of(8, 0).plusMinutes(30L * i), 3 - i % 4))
+                .toList();
+    }
+
+    @Benchmark
+    public String serializarAgendamento() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(agendamento);
+    }
+
+    @Benchmark
+    public AgendamentoDto desserializarAgendamento() throws JsonProcessingException {
+        return objectMapper.readValue(agendamentoJson, AgendamentoDto.class);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaDeLavaJatos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] serializarDisponibilidade() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(disponibilidade);
+    }
+}
@@ -0,0 +1,105 @@
+package com.lavexpress.laveexpress.benchmarks;
+
+import com.lavexpress.laveexpress.dtos.AgendaItemDto;
+import com.lavexpress.laveexpress.dtos.AgendamentoDto;
+import com.lavexpress.laveexpress.dtos.LavaJatoDto;
+import com.lavexpress.laveexpress.dtos.UsuarioDto;
+import com.lavexpress.laveexpress.dtos.VeiculoDto;
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.entities.Veiculo;
+import com.lavexpress.laveexpress.mappers.AgendamentoMapper;
+import com.lavexpress.laveexpress.mappers.AgendamentoMapperImpl;
+import com.lavexpress.laveexpress.mappers.LavaJatoMapper;
+import com.lavexpress.laveexpress.mappers.LavaJatoMapperImpl;
+import com.lavexpress.laveexpress.mappers.UsuarioMapper;
+import com.lavexpress.laveexpress.mappers.UsuarioMapperImpl;
+import com.lavexpress.laveexpress.mappers.VeiculoMapper;
+import com.lavexpress.laveexpress.mappers.VeiculoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    private final UsuarioMapper usuarioMapper = new UsuarioMapperImpl();
+
+    private final LavaJatoMapper lavaJatoMapper = new LavaJatoMapperImpl();
+
+    private final VeiculoMapper veiculoMapper = new VeiculoMapperImpl();
+
+    private final AgendamentoMapper agendamentoMapper = new AgendamentoMapperImpl();
+
+    private Usuario usuario;
+
+    private LavaJato lavaJato;
+
+    private Veiculo veiculo;
+
+    private Agendamento agendamento;
+
+    private AgendamentoDto agendamentoDto;
+
+    @Setup
+    public void preparar() {
+        usuario = Amostras.usuario();
+        usuario.setId(1L);
+        lavaJato = Amostras.lavaJato(usuario);
+        lavaJato.setId(2L);
+        Servico servico = Amostras.servico(lavaJato);
+        servico.setId(3L);
+        veiculo = Amostras.veiculo(1, usuario);
+        veiculo.setId(4L);
+        agendamento = Amostras.agendamento(servico, usuario, lavaJato, LocalDateTime.of(2025, 6, 2, 9, 30), 1);
+        agendamento.setId(5L);
+        agendamentoDto = agendamentoMapper.entityToDto(agendamento);
+    }
+
+    @Benchmark
+    public UsuarioDto usuarioParaDto() {
+        return usuarioMapper.entityToDto(usuario);
+    }
+
+    @Benchmark
+    public LavaJatoDto lavaJatoParaDto() {
+        return lavaJatoMapper.entityToDto(lavaJato);
+    }
+
+    @Benchmark
+    public VeiculoDto veiculoParaDto() {
+        return veiculoMapper.entityToDto(veiculo);
+    }
+
+    @Benchmark
+    public AgendamentoDto agendamentoParaDto() {
+        return agendamentoMapper.entityToDto(agendamento);
+    }
+
+    @Benchmark
+    public AgendaItemDto agendamentoParaItemDeAgenda() {
+        return agendamentoMapper.toAgendaItem(agendamento);
+    }
+
+    @Benchmark
+    public Agendamento dtoParaAgendamento() {
+        return agendamentoMapper.dtoToEntity(agendamentoDto);
+    }
+}
@@ -2,8 +2,12 @@ package com.lavexpress.laveexpress;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@EnableScheduling
+// Autenticação só por token: sem o usuário "user" com senha gerada do Spring Boot
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
 public class LavexpressApplication {
 
 	public static void main(String[] args) {
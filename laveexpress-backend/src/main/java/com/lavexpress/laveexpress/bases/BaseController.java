@@ -1,4 +1,41 @@
 package com.lavexpress.laveexpress.bases;
 
-public class BaseController {
+import com.lavexpress.laveexpress.dtos.PaginaDto;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+public abstract class BaseController<Entity extends BaseEntity, EntityDto> {
+
+    protected abstract BaseService<Entity> getService();
+
+    protected abstract BaseMapper<Entity, EntityDto> getMapper();
+
+    // Para as primeiras páginas das telas de listagem; traz o total de registros
+    protected ResponseEntity<PaginaDto<EntityDto>> paginar(int pagina, int tamanho, BaseFilter<Entity> filtro) {
+        return paginar(pagina, tamanho, filtro, getMapper()::entityToDto);
+    }
+
+    // Para rolagem infinita e páginas profundas: o cliente devolve o proximoCursor recebido
+    protected ResponseEntity<PaginaDto<EntityDto>> paginarAPartirDe(Long cursor, int tamanho, BaseFilter<Entity> filtro) {
+        return paginarAPartirDe(cursor, tamanho, filtro, getMapper()::entityToDto);
+    }
+
+    // Variantes com outro DTO para a listagem (menos campos que o DTO completo da entidade)
+    protected <Item> ResponseEntity<PaginaDto<Item>> paginar(int pagina, int tamanho, BaseFilter<Entity> filtro,
+                                                             Function<Entity, Item> conversor) {
+        Page<Entity> page = getService().findAll(pagina, tamanho, filtro);
+        List<Item> itens = page.getContent().stream().map(conversor).toList();
+        return ResponseEntity.ok(new PaginaDto<>(itens, page.getTotalElements(), null));
+    }
+
+    protected <Item> ResponseEntity<PaginaDto<Item>> paginarAPartirDe(Long cursor, int tamanho, BaseFilter<Entity> filtro,
+                                                                      Function<Entity, Item> conversor) {
+        List<Entity> entidades = getService().findAfter(cursor, tamanho, filtro);
+        Long proximoCursor = entidades.size() < BaseService.limitar(tamanho) ? null : entidades.get(entidades.size() - 1).getId();
+        List<Item> itens = entidades.stream().map(conversor).toList();
+        return ResponseEntity.ok(new PaginaDto<>(itens, null, proximoCursor));
+    }
 }
@@ -0,0 +1,6 @@
+package com.lavexpress.laveexpress.bases;
+
+public interface BaseEntity {
+
+    Long getId();
+}
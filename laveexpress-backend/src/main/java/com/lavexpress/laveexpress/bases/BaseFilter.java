@@ -0,0 +1,8 @@
+package com.lavexpress.laveexpress.bases;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BaseFilter<Entity> {
+
+    Specification<Entity> toSpecification();
+}
@@ -1,40 +1,125 @@
 package com.lavexpress.laveexpress.bases;
 
+import com.lavexpress.laveexpress.config.LeituraReplica;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.hibernate.Hibernate;
 import org.hibernate.proxy.HibernateProxy;
 import org.springframework.data.domain.Page;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Transactional
-public abstract class BaseService<Entity> {
+public abstract class BaseService<Entity extends BaseEntity> {
+
+    public static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    // Igual a hibernate.jdbc.batch_size: cada flush manda exatamente um lote por tabela
+    public static final int TAMANHO_LOTE = 50;
+
+    private static final Sort ORDEM_POR_ID = Sort.by("id");
 
     protected final Log logger = LogFactory.getLog(getClass());
 
-    public abstract JpaRepository<Entity, Long> getRepository();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public abstract BaseRepository<Entity> getRepository();
 
     public void save(Entity entity) {
-        getRepository().save(entity);
+        aposSalvar(getRepository().save(entity));
     }
 
     public Entity saveWithReturn(Entity entity) {
-        return getRepository().save(entity);
+        Entity salvo = getRepository().save(entity);
+        aposSalvar(salvo);
+        return salvo;
+    }
+
+    // Inserção em lote: flush + clear a cada TAMANHO_LOTE para o contexto de persistência não crescer
+    // com a lista inteira. As entidades devolvidas ficam desanexadas.
+    public List<Entity> saveAll(Collection<Entity> entities) {
+        List<Entity> salvos = new ArrayList<>(entities.size());
+        for (Entity entity : entities) {
+            salvos.add(getRepository().save(entity));
+            if (salvos.size() % TAMANHO_LOTE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        aposSalvarTodos(salvos);
+        return salvos;
     }
 
     public void delete(Entity entity) {
         getRepository().delete(entity);
+        aposExcluir(entity);
     }
 
-//    public abstract Page<Entity> findAll(int page, int size, EntityFilter filter);
+    @LeituraReplica
+    public Page<Entity> findAll(int page, int size, BaseFilter<Entity> filter) {
+        return getRepository().findAll(especificacao(filter), PageRequest.of(Math.max(page, 0), limitar(size), ORDEM_POR_ID));
+    }
 
+    // Paginação por chave (seek): continua a partir do último id devolvido, sem OFFSET nem count
+    @LeituraReplica
+    public List<Entity> findAfter(Long cursor, int size, BaseFilter<Entity> filter) {
+        Specification<Entity> specification = especificacao(filter);
+        if (cursor != null) {
+            specification = specification.and((root, query, cb) -> cb.greaterThan(root.get("id"), cursor));
+        }
+        int limite = limitar(size);
+        return getRepository().findBy(specification, query -> query.sortBy(ORDEM_POR_ID).limit(limite).all());
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Entity> findById(Long id) {
         return getRepository().findById(id);
     }
 
+    public static int limitar(int size) {
+        return Math.max(1, Math.min(size, TAMANHO_MAXIMO_PAGINA));
+    }
 
+    private Specification<Entity> especificacao(BaseFilter<Entity> filter) {
+        Specification<Entity> specification = filter != null ? filter.toSpecification() : null;
+        return specification != null ? specification : (root, query, cb) -> cb.conjunction();
+    }
+
+    // Ganchos para manter índices e caches em memória sincronizados com as escritas
+    protected void aposSalvar(Entity entity) {
+    }
+
+    protected void aposSalvarTodos(List<Entity> entities) {
+        entities.forEach(this::aposSalvar);
+    }
+
+    protected void aposExcluir(Entity entity) {
+    }
+
+    protected void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
 
 }
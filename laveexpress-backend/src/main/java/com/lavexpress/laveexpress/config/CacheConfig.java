@@ -0,0 +1,50 @@
+package com.lavexpress.laveexpress.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String LAVAJATOS = "lavajatos";
+
+    public static final String LAVAJATOS_POR_TIPO = "lavajatos-por-tipo";
+
+    public static final String SERVICOS = "servicos";
+
+    public static final String SERVICOS_DO_LAVAJATO = "servicos-do-lavajato";
+
+    // Catálogo muda pouco: o TTL só limita quanto tempo outra instância fica com dado velho,
+    // a invalidação local acontece no commit (ver LavaJatoService e ServicoService)
+    @Bean
+    public CacheManager cacheManager(@Value("${lavexpress.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                                     @Value("${lavexpress.cache.ttl:10m}") Duration ttl,
+                                     @Value("${lavexpress.cache.ttl-listagens:5m}") Duration ttlListagens) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                cache(LAVAJATOS, tamanhoMaximo, ttl),
+                cache(SERVICOS, tamanhoMaximo * 2, ttl),
+                cache(SERVICOS_DO_LAVAJATO, tamanhoMaximo, ttlListagens),
+                cache(LAVAJATOS_POR_TIPO, 500, ttlListagens)
+        ));
+        return cacheManager;
+    }
+
+    private static CaffeineCache cache(String nome, long tamanhoMaximo, Duration ttl) {
+        return new CaffeineCache(nome, Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), false);
+    }
+}
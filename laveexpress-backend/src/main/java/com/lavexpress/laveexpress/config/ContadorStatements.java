@@ -0,0 +1,114 @@
+package com.lavexpress.laveexpress.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Conta os statements que o Hibernate prepara na thread do request. Com um limite ativo
+// (padrão ou @LimiteStatements) e modo estrito, o statement que estoura o limite falha,
+// o que faz um N+1 quebrar o request em vez de passar despercebido. Com um MeterRegistry,
+// o total de cada request vira a métrica lavexpress.jpa.statements por endpoint.
+public class ContadorStatements implements StatementInspector, AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<Contagem> CONTAGEM = new ThreadLocal<>();
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final int limitePadrao;
+
+    private final boolean estrito;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<HandlerMethod, DistributionSummary> metricas = new ConcurrentHashMap<>();
+
+    public ContadorStatements(int limitePadrao, boolean estrito) {
+        this(limitePadrao, estrito, null);
+    }
+
+    public ContadorStatements(int limitePadrao, boolean estrito, MeterRegistry meterRegistry) {
+        this.limitePadrao = limitePadrao;
+        this.estrito = estrito;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contagem contagem = CONTAGEM.get();
+        if (contagem != null && ++contagem.total > contagem.limite && contagem.limite > 0) {
+            String mensagem = contagem.rota + " excedeu o limite de " + contagem.limite + " statements: " + sql;
+            if (estrito) {
+                throw new IllegalStateException(mensagem);
+            }
+            logger.warn(mensagem);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        int limite = limitePadrao;
+        if (handler instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(LimiteStatements.class)) {
+            limite = handlerMethod.getMethodAnnotation(LimiteStatements.class).value();
+        }
+        CONTAGEM.set(new Contagem(request.getMethod() + " " + request.getRequestURI(), limite));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Contagem contagem = CONTAGEM.get();
+        CONTAGEM.remove();
+        if (contagem == null) {
+            return;
+        }
+        if (meterRegistry != null && handler instanceof HandlerMethod handlerMethod) {
+            metricas.computeIfAbsent(handlerMethod, this::novaMetrica).record(contagem.total);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(contagem.rota + " executou " + contagem.total + " statements");
+        }
+    }
+
+    // Requests assíncronos (CompletableFuture) não passam por afterCompletion nesta thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CONTAGEM.remove();
+    }
+
+    private DistributionSummary novaMetrica(HandlerMethod handlerMethod) {
+        return DistributionSummary.builder("lavexpress.jpa.statements")
+                .description("Statements SQL preparados por request")
+                .tag("endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName())
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50)
+                .register(meterRegistry);
+    }
+
+    public static int statementsNoRequestAtual() {
+        Contagem contagem = CONTAGEM.get();
+        return contagem != null ? contagem.total : 0;
+    }
+
+    private static final class Contagem {
+
+        private final String rota;
+
+        private final int limite;
+
+        private int total;
+
+        private Contagem(String rota, int limite) {
+            this.rota = rota;
+            this.limite = limite;
+        }
+    }
+}
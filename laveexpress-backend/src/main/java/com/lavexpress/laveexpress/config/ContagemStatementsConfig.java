@@ -0,0 +1,35 @@
+package com.lavexpress.laveexpress.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "lavexpress.jpa.contagem-statements", name = "habilitada", havingValue = "true")
+public class ContagemStatementsConfig implements WebMvcConfigurer {
+
+    private final ContadorStatements contadorStatements;
+
+    public ContagemStatementsConfig(@Value("${lavexpress.jpa.contagem-statements.limite-padrao:0}") int limitePadrao,
+                                    @Value("${lavexpress.jpa.contagem-statements.estrito:false}") boolean estrito,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        this.contadorStatements = new ContadorStatements(limitePadrao, estrito, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorStatementsCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, contadorStatements);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(contadorStatements).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,64 @@
+package com.lavexpress.laveexpress.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Primário em spring.datasource, réplica de leitura opcional em lavexpress.datasource.replica.
+// Sem lavexpress.datasource.replica.url, as leituras @LeituraReplica também vão para o primário.
+@Configuration
+public class DataSourceConfig {
+
+    // Os pools continuam beans para o actuator publicar hikaricp.* de cada um; a aplicação usa o @Primary
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("lavexpress.datasource.replica")
+    @ConditionalOnExpression("!'${lavexpress.datasource.replica.url:}'.isBlank()")
+    public DataSourceProperties replicaProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("lavexpress.datasource.replica.hikari")
+    @ConditionalOnExpression("!'${lavexpress.datasource.replica.url:}'.isBlank()")
+    public HikariDataSource replicaDataSource(@Qualifier("replicaProperties") DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+        RoteamentoDataSource roteamento = new RoteamentoDataSource();
+        roteamento.setTargetDataSources(Map.of(
+                RoteamentoDataSource.Destino.PRIMARIO, primario,
+                RoteamentoDataSource.Destino.REPLICA, replica.getIfAvailable(() -> primario)));
+        roteamento.setDefaultTargetDataSource(primario);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    // Substitui o JpaTransactionManager da auto-configuração (que recua com @ConditionalOnMissingBean)
+    @Bean
+    public RoteamentoTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        RoteamentoTransactionManager transactionManager = new RoteamentoTransactionManager();
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+}
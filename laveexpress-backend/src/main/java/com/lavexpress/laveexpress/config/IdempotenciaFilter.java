@@ -0,0 +1,282 @@
+package com.lavexpress.laveexpress.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lavexpress.laveexpress.security.UsuarioAutenticado;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeMap;
+
+// POST/PUT/PATCH/DELETE com o header Idempotency-Key: a primeira execução grava a resposta 2xx,
+// e as repetições com a mesma chave (mesmo usuário, rota e parâmetros) recebem a resposta
+// gravada sem chegar ao controller. Repetição enquanto a primeira ainda roda recebe 409; a
+// mesma chave com outro corpo, 422. Respostas de erro não ficam gravadas: a repetição executa.
+// Registros só em memória, por instância; o balanceador deve manter o cliente na mesma.
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    private static final Set<String> METODOS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private static final String ATRIBUTO = IdempotenciaFilter.class.getName() + ".chave";
+
+    private final Cache<String, Registro> registros;
+
+    private final int tamanhoMaximoCorpo;
+
+    public IdempotenciaFilter(@Value("${lavexpress.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                              @Value("${lavexpress.idempotencia.ttl:24h}") Duration ttl,
+                              @Value("${lavexpress.idempotencia.tamanho-maximo-corpo:65536}") int tamanhoMaximoCorpo) {
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo;
+        this.registros = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Controllers que devolvem CompletableFuture terminam em um dispatch assíncrono
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            Chave chave = (Chave) request.getAttribute(ATRIBUTO);
+            try {
+                filterChain.doFilter(request, response);
+            } catch (Throwable e) {
+                if (chave != null) {
+                    registros.invalidate(chave.valor());
+                }
+                throw e;
+            }
+            if (chave != null && !request.isAsyncStarted()) {
+                concluir(chave, WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class));
+            }
+            return;
+        }
+
+        String chaveCliente = request.getHeader(HEADER);
+        if (chaveCliente == null || !METODOS.contains(request.getMethod()) || isMultipart(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (chaveCliente.isBlank() || chaveCliente.length() > TAMANHO_MAXIMO_CHAVE) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER + " deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+            return;
+        }
+
+        HttpServletRequest requisicao = request;
+        MessageDigest digest = sha256();
+        digest.update((request.getMethod() + " " + request.getRequestURI()).getBytes(StandardCharsets.UTF_8));
+        if (isFormulario(request)) {
+            // O corpo já vira parâmetros; ler o stream aqui esconderia os parâmetros do controller
+            new TreeMap<>(request.getParameterMap()).forEach((nome, valores) ->
+                    digest.update((nome + "=" + String.join(",", valores) + "&").getBytes(StandardCharsets.UTF_8)));
+        } else {
+            digest.update(String.valueOf(request.getQueryString()).getBytes(StandardCharsets.UTF_8));
+            byte[] corpo = request.getInputStream().readNBytes(tamanhoMaximoCorpo + 1);
+            if (corpo.length > tamanhoMaximoCorpo) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Corpo grande demais para requisição idempotente.");
+                return;
+            }
+            digest.update(corpo);
+            requisicao = new CorpoLido(request, corpo);
+        }
+        Chave chave = new Chave(dono() + ":" + chaveCliente, HexFormat.of().formatHex(digest.digest()));
+
+        Registro anterior = registros.asMap().putIfAbsent(chave.valor(), new Registro(chave.impressao(), null));
+        if (anterior != null) {
+            repetir(anterior, chave, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(requisicao, resposta);
+        } catch (Throwable e) {
+            // Error também (StackOverflowError, OutOfMemoryError...): a chave não pode ficar presa em "em andamento"
+            registros.invalidate(chave.valor());
+            throw e;
+        }
+        if (requisicao.isAsyncStarted()) {
+            requisicao.setAttribute(ATRIBUTO, chave);
+        } else {
+            concluir(chave, resposta);
+        }
+    }
+
+    private void concluir(Chave chave, ContentCachingResponseWrapper resposta) throws IOException {
+        if (resposta == null) {
+            registros.invalidate(chave.valor());
+            return;
+        }
+        byte[] corpo = resposta.getContentAsByteArray();
+        if (HttpStatus.valueOf(resposta.getStatus()).is2xxSuccessful() && corpo.length <= tamanhoMaximoCorpo) {
+            registros.put(chave.valor(), new Registro(chave.impressao(), new Resposta(resposta.getStatus(),
+                    resposta.getContentType(), resposta.getHeader(HttpHeaders.LOCATION), corpo)));
+        } else {
+            registros.invalidate(chave.valor());
+        }
+        resposta.copyBodyToResponse();
+    }
+
+    private static void repetir(Registro anterior, Chave chave, HttpServletResponse response) throws IOException {
+        if (!anterior.impressao().equals(chave.impressao())) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), HEADER + " já usada com outra requisição.");
+            return;
+        }
+        Resposta resposta = anterior.resposta();
+        if (resposta == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.CONFLICT.value(), "Requisição com esta " + HEADER + " ainda em andamento.");
+            return;
+        }
+        response.setStatus(resposta.status());
+        response.setHeader(HEADER_REPETIDA, "true");
+        if (resposta.contentType() != null) {
+            response.setContentType(resposta.contentType());
+        }
+        if (resposta.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, resposta.location());
+        }
+        response.setContentLength(resposta.corpo().length);
+        response.getOutputStream().write(resposta.corpo());
+    }
+
+    private static String dono() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return "u" + usuario.id();
+        }
+        return "anonimo";
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        return request.getContentType() != null && request.getContentType().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    private static boolean isFormulario(HttpServletRequest request) {
+        return request.getContentType() == null || request.getContentType().startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Chave do registro (dono + chave do cliente) e impressão da requisição (método, rota, parâmetros, corpo)
+    private record Chave(String valor, String impressao) {
+    }
+
+    // resposta == null: primeira execução em andamento
+    private record Registro(String impressao, Resposta resposta) {
+    }
+
+    private record Resposta(int status, String contentType, String location, byte[] corpo) {
+    }
+
+    // Devolve ao controller o corpo já lido para a impressão
+    private static final class CorpoLido extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoLido(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Leitura não bloqueante: o corpo já está todo em memória, então sai tudo de uma vez
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (Throwable e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
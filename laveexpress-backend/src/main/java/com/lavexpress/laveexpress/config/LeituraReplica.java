@@ -0,0 +1,20 @@
+package com.lavexpress.laveexpress.config;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Transação somente leitura que pode ir para a réplica (ver RoteamentoTransactionManager).
+// Só para leituras que toleram atraso de replicação; um readOnly comum continua no primário.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true, label = LeituraReplica.ROTULO)
+public @interface LeituraReplica {
+
+    String ROTULO = "replica";
+}
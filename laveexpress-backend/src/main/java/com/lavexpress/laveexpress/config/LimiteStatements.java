@@ -0,0 +1,15 @@
+package com.lavexpress.laveexpress.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Número máximo de statements SQL que o endpoint pode disparar, conferido quando
+// lavexpress.jpa.contagem-statements.habilitada=true
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LimiteStatements {
+
+    int value();
+}
@@ -0,0 +1,37 @@
+package com.lavexpress.laveexpress.config;
+
+import com.lavexpress.laveexpress.services.AgendaAoVivo;
+import com.lavexpress.laveexpress.services.SenhaService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Métricas HTTP, de repositório, do Hikari e dos caches vêm da auto-configuração do actuator;
+// aqui ficam só as que dependem de componentes da aplicação.
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder senhaMetricas(SenhaService senhaService) {
+        return registry -> {
+            Gauge.builder("lavexpress.senha.ativas", senhaService, s -> s.estatisticas().ativas())
+                    .description("Hashes de senha em execução")
+                    .register(registry);
+            Gauge.builder("lavexpress.senha.fila", senhaService, s -> s.estatisticas().fila())
+                    .description("Hashes de senha aguardando thread")
+                    .register(registry);
+            FunctionCounter.builder("lavexpress.senha.rejeitadas", senhaService, s -> s.estatisticas().rejeitadas())
+                    .description("Hashes recusados com a fila cheia (503)")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder agendaAoVivoMetricas(AgendaAoVivo agendaAoVivo) {
+        return registry -> Gauge.builder("lavexpress.agenda.ao-vivo.inscritos", agendaAoVivo, AgendaAoVivo::inscritos)
+                .description("Conexões SSE abertas na agenda ao vivo")
+                .register(registry);
+    }
+}
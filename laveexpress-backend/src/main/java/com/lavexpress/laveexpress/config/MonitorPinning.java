@@ -0,0 +1,110 @@
+package com.lavexpress.laveexpress.config;
+
+import com.lavexpress.laveexpress.dtos.ThreadsEstatisticaDto;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Escuta o evento JFR jdk.VirtualThreadPinned: uma virtual thread que bloqueia dentro de synchronized
+// (ou em código nativo) prende a carrier thread e volta a limitar a concorrência ao tamanho do pool.
+@Component
+public class MonitorPinning {
+
+    private static final int MAXIMO_ORIGENS = 50;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final boolean virtuais;
+
+    private final boolean habilitado;
+
+    private final Duration limiar;
+
+    private final LongAdder eventos = new LongAdder();
+
+    private final AtomicLong maximoMs = new AtomicLong();
+
+    private final Map<String, LongAdder> porOrigem = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public MonitorPinning(Environment environment,
+                          @Value("${lavexpress.threads.monitor-pinning.habilitado:true}") boolean habilitado,
+                          @Value("${lavexpress.threads.monitor-pinning.limiar:20ms}") Duration limiar) {
+        this.virtuais = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        this.habilitado = habilitado;
+        this.limiar = limiar;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!virtuais || !habilitado) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(limiar).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::registrar);
+        stream.startAsync();
+        logger.info("Monitor de pinning de virtual threads ativo (limiar " + limiar.toMillis() + "ms)");
+    }
+
+    private void registrar(RecordedEvent evento) {
+        long duracaoMs = evento.getDuration().toMillis();
+        eventos.increment();
+        maximoMs.accumulateAndGet(duracaoMs, Math::max);
+
+        String origem = origem(evento);
+        LongAdder contador = porOrigem.get(origem);
+        if (contador == null && porOrigem.size() < MAXIMO_ORIGENS) {
+            contador = porOrigem.computeIfAbsent(origem, o -> new LongAdder());
+        }
+        if (contador != null) {
+            contador.increment();
+        }
+        logger.warn("Virtual thread presa à carrier por " + duracaoMs + "ms em " + origem);
+    }
+
+    // Primeiro frame fora do JDK: é ali que está o synchronized que precisa virar ReentrantLock
+    private String origem(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "desconhecida";
+        }
+        for (RecordedFrame frame : evento.getStackTrace().getFrames()) {
+            String classe = frame.getMethod().getType().getName();
+            if (!classe.startsWith("java.") && !classe.startsWith("jdk.") && !classe.startsWith("sun.")) {
+                return classe + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "jdk";
+    }
+
+    public ThreadsEstatisticaDto estatisticas() {
+        Map<String, Long> origens = porOrigem.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(), (a, b) -> a, LinkedHashMap::new));
+        return new ThreadsEstatisticaDto(virtuais, stream != null, eventos.sum(), maximoMs.get(), origens);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
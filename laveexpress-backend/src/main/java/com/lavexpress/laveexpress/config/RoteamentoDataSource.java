@@ -0,0 +1,32 @@
+package com.lavexpress.laveexpress.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Só vai para a réplica o que o RoteamentoTransactionManager marcou (@LeituraReplica); todo o
+// resto, inclusive readOnly sem a marca e código sem transação, usa o primário. Precisa ficar
+// atrás de um LazyConnectionDataSourceProxy: a conexão só é pedida depois que a transação começou.
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private static final ThreadLocal<Destino> DESTINO = new ThreadLocal<>();
+
+    static Destino destinoAtual() {
+        return DESTINO.get();
+    }
+
+    static void definir(Destino destino) {
+        if (destino == null) {
+            DESTINO.remove();
+        } else {
+            DESTINO.set(destino);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DESTINO.get() == Destino.REPLICA ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+}
@@ -0,0 +1,55 @@
+package com.lavexpress.laveexpress.config;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+// Marca o destino da conexão no início de cada transação física: réplica só para @LeituraReplica.
+// O readOnly que o SimpleJpaRepository abre sozinho (findById fora de transação) fica no primário.
+// Uma transação suspensa (REQUIRES_NEW, NOT_SUPPORTED) recupera o destino ao ser retomada.
+public class RoteamentoTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RoteamentoDataSource.definir(replica(definition) ? RoteamentoDataSource.Destino.REPLICA : null);
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            RoteamentoDataSource.definir(null);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            RoteamentoDataSource.definir(null);
+        }
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        RoteamentoDataSource.Destino destino = RoteamentoDataSource.destinoAtual();
+        Object recursos = super.doSuspend(transaction);
+        RoteamentoDataSource.definir(null);
+        return new Suspensa(recursos, destino);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        Suspensa suspensa = (Suspensa) suspendedResources;
+        RoteamentoDataSource.definir(suspensa.destino());
+        super.doResume(transaction, suspensa.recursos());
+    }
+
+    private static boolean replica(TransactionDefinition definition) {
+        return definition.isReadOnly()
+                && definition instanceof TransactionAttribute atributo
+                && atributo.getLabels().contains(LeituraReplica.ROTULO);
+    }
+
+    private record Suspensa(Object recursos, RoteamentoDataSource.Destino destino) {
+    }
+}
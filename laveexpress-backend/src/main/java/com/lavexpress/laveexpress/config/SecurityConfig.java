@@ -1,27 +1,62 @@
 package com.lavexpress.laveexpress.config;
 
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.security.LimitadorTaxa;
+import com.lavexpress.laveexpress.security.LimiteTaxaFilter;
+import com.lavexpress.laveexpress.security.LimiteTaxaProperties;
+import com.lavexpress.laveexpress.security.TokenAutenticacaoFilter;
+import com.lavexpress.laveexpress.security.TokenProperties;
+import com.lavexpress.laveexpress.security.TokenService;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties({TokenProperties.class, LimiteTaxaProperties.class})
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService, LimitadorTaxa limitadorTaxa) throws Exception {
         http
-                .csrf().disable()
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
-                                .requestMatchers("/api/usuarios", "/api/auth/login", "/api/auth/cadastro").permitAll() // Permitir acesso sem autenticação
+                                // O request original já foi autorizado; o dispatch de conclusão (SSE, exportações,
+                                // CompletableFuture) e o de erro não passam de novo pelo filtro de token
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                                .requestMatchers(HttpMethod.POST, "/api/usuarios", "/api/login", "/api/auth/login", "/api/auth/cadastro").permitAll() // Permitir acesso sem autenticação
+                                .requestMatchers("/error").permitAll()
+                                // Operação da plataforma: diagnóstico, importação em massa, exportações e dados pessoais
+                                .requestMatchers("/api/admin/**", "/api/importacoes/**", "/api/exportacoes/**").hasRole(Usuario.ADMIN)
+                                // Listagens gerais (todos os usuários, agendamentos e placas); cada usuário vê os seus
+                                // pelo perfil e pelo histórico
+                                .requestMatchers(HttpMethod.GET, "/api/usuarios", "/api/usuarios/cursor",
+                                        "/api/agendamentos", "/api/agendamentos/cursor",
+                                        "/api/veiculos", "/api/veiculos/cursor").hasRole(Usuario.ADMIN)
+                                // Expostos só na porta de gerenciamento (management.server.port)
+                                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                                 .anyRequest().authenticated()
                 )
-                .httpBasic().disable()
-                .formLogin().disable()
-                .cors();
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new TokenAutenticacaoFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new LimiteTaxaFilter(limitadorTaxa), TokenAutenticacaoFilter.class)
+                .cors(Customizer.withDefaults());
 
         return http.build();
     }
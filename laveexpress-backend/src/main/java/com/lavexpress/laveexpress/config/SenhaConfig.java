@@ -0,0 +1,27 @@
+package com.lavexpress.laveexpress.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+@Configuration
+public class SenhaConfig {
+
+    // Hashes gravados como "{bcrypt}...". Senhas antigas, salvas em texto puro e sem prefixo,
+    // ainda conferem e são recodificadas no próximo login (upgradeEncoding devolve true para elas).
+    // O mesmo vale quando o custo do bcrypt aumenta.
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${lavexpress.senha.custo-bcrypt:12}") int custo) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of(
+                "bcrypt", new BCryptPasswordEncoder(custo),
+                "noop", NoOpPasswordEncoder.getInstance()));
+        encoder.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return encoder;
+    }
+}
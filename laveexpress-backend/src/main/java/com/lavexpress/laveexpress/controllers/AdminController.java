@@ -0,0 +1,67 @@
+package com.lavexpress.laveexpress.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lavexpress.laveexpress.config.MonitorPinning;
+import com.lavexpress.laveexpress.dtos.CacheEstatisticaDto;
+import com.lavexpress.laveexpress.dtos.SenhaEstatisticaDto;
+import com.lavexpress.laveexpress.dtos.ThreadsEstatisticaDto;
+import com.lavexpress.laveexpress.services.ResumoService;
+import com.lavexpress.laveexpress.services.SenhaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SenhaService senhaService;
+
+    @Autowired
+    private MonitorPinning monitorPinning;
+
+    @Autowired
+    private ResumoService resumoService;
+
+
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheEstatisticaDto>> caches() {
+        List<CacheEstatisticaDto> estatisticas = cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(cache -> {
+                    CacheStats stats = cache.getNativeCache().stats();
+                    return new CacheEstatisticaDto(cache.getName(), cache.getNativeCache().estimatedSize(),
+                            stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+                })
+                .toList();
+        return ResponseEntity.ok(estatisticas);
+    }
+
+
+    @GetMapping("/senhas")
+    public ResponseEntity<SenhaEstatisticaDto> senhas() {
+        return ResponseEntity.ok(senhaService.estatisticas());
+    }
+
+
+    @GetMapping("/threads")
+    public ResponseEntity<ThreadsEstatisticaDto> threads() {
+        return ResponseEntity.ok(monitorPinning.estatisticas());
+    }
+
+
+    @PostMapping("/resumos/recalcular")
+    public ResponseEntity<Integer> recalcularResumos() {
+        return ResponseEntity.ok(resumoService.recalcular());
+    }
+}
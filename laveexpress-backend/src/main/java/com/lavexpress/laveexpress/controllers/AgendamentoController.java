@@ -1,4 +1,131 @@
 package com.lavexpress.laveexpress.controllers;
 
-public class AgendamentoController {
+import com.lavexpress.laveexpress.bases.BaseController;
+import com.lavexpress.laveexpress.bases.BaseMapper;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.LimiteStatements;
+import com.lavexpress.laveexpress.dtos.AgendaItemDto;
+import com.lavexpress.laveexpress.dtos.AgendamentoDto;
+import com.lavexpress.laveexpress.dtos.AgendamentoFilter;
+import com.lavexpress.laveexpress.dtos.HistoricoItemDto;
+import com.lavexpress.laveexpress.dtos.HorarioDisponivelDto;
+import com.lavexpress.laveexpress.dtos.PaginaDto;
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.mappers.AgendamentoMapper;
+import com.lavexpress.laveexpress.security.UsuarioAutenticado;
+import com.lavexpress.laveexpress.services.AgendaAoVivo;
+import com.lavexpress.laveexpress.services.AgendamentoService;
+import com.lavexpress.laveexpress.services.LavaJatoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/agendamentos")
+public class AgendamentoController extends BaseController<Agendamento, AgendamentoDto> {
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendaAoVivo agendaAoVivo;
+
+    @Autowired
+    private LavaJatoService lavaJatoService;
+
+    @Autowired
+    private AgendamentoMapper mapper;
+
+    @Override
+    protected BaseService<Agendamento> getService() {
+        return agendamentoService;
+    }
+
+    @Override
+    protected BaseMapper<Agendamento, AgendamentoDto> getMapper() {
+        return mapper;
+    }
+
+
+    @GetMapping
+    @LimiteStatements(2)
+    public ResponseEntity<PaginaDto<AgendamentoDto>> listar(@RequestParam(defaultValue = "0") int pagina,
+                                                            @RequestParam(defaultValue = "20") int tamanho,
+                                                            @ModelAttribute AgendamentoFilter filtro) {
+        return paginar(pagina, tamanho, filtro);
+    }
+
+
+    @GetMapping("/cursor")
+    @LimiteStatements(1)
+    public ResponseEntity<PaginaDto<AgendamentoDto>> listarAPartirDe(@RequestParam(required = false) Long cursor,
+                                                                     @RequestParam(defaultValue = "20") int tamanho,
+                                                                     @ModelAttribute AgendamentoFilter filtro) {
+        return paginarAPartirDe(cursor, tamanho, filtro);
+    }
+
+
+    @PostMapping
+    public ResponseEntity<AgendamentoDto> agendar(@RequestParam Long lavaJatoId,
+                                                  @RequestParam Long servicoId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime horario,
+                                                  @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+
+        // Sempre em nome de quem está logado
+        var agendamento = agendamentoService.agendar(lavaJatoId, servicoId, autenticado.id(), horario);
+
+        return ResponseEntity.status(201).body(mapper.entityToDto(agendamento));
+    }
+
+
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<List<HorarioDisponivelDto>> disponibilidade(@RequestParam Long lavaJatoId,
+                                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+        return ResponseEntity.ok(agendamentoService.disponiveis(lavaJatoId, dia));
+    }
+
+
+    // Nome e telefone dos clientes: só para o proprietário, como /agenda/ao-vivo
+    @GetMapping("/agenda")
+    @LimiteStatements(2)
+    public ResponseEntity<List<AgendaItemDto>> agenda(@RequestParam Long lavaJatoId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia,
+                                                      @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        lavaJatoService.verificarProprietario(lavaJatoId, autenticado);
+        return ResponseEntity.ok(agendamentoService.agenda(lavaJatoId, dia));
+    }
+
+
+    // Eventos criado/alterado/cancelado com o mesmo item de /agenda, para o painel não precisar fazer polling
+    @GetMapping(value = "/agenda/ao-vivo", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter agendaAoVivo(@RequestParam Long lavaJatoId,
+                                   @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        lavaJatoService.verificarProprietario(lavaJatoId, autenticado);
+        return agendaAoVivo.inscrever(lavaJatoId);
+    }
+
+
+    @GetMapping("/historico")
+    @LimiteStatements(1)
+    public ResponseEntity<List<HistoricoItemDto>> historico(@RequestParam(defaultValue = "0") int pagina,
+                                                            @RequestParam(defaultValue = "20") int tamanho,
+                                                            @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        return ResponseEntity.ok(agendamentoService.historico(autenticado.id(), pagina, tamanho));
+    }
+
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelar(@PathVariable Long id,
+                                         @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        agendamentoService.cancelar(id, autenticado);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,30 +1,55 @@
 package com.lavexpress.laveexpress.controllers;
 
-import com.lavexpress.laveexpress.dtos.LoginRequest;
 import com.lavexpress.laveexpress.dtos.CadastroRequest;
+import com.lavexpress.laveexpress.dtos.LoginRequest;
+import com.lavexpress.laveexpress.dtos.TokenDto;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.security.LimitadorTaxa;
+import com.lavexpress.laveexpress.security.TokenService;
+import com.lavexpress.laveexpress.services.UsuarioService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private LimitadorTaxa limitadorTaxa;
+
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginRequest loginRequest) {
-
-        if ("guilherme@email.com".equals(loginRequest.getEmail()) &&
-                "123456".equals(loginRequest.getSenha())) {
-            return ResponseEntity.ok("Login realizado com sucesso");
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciais inválidas");
-        }
+    public CompletableFuture<ResponseEntity<TokenDto>> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // O e-mail vem no corpo JSON, fora do alcance do LimiteTaxaFilter
+        limitadorTaxa.verificar(request, LimitadorTaxa.Dimensao.EMAIL, loginRequest.getEmail());
+
+        return usuarioService.autenticar(loginRequest.getEmail(), loginRequest.getSenha())
+                .thenApply(usuario -> usuario
+                        .map(autenticado -> ResponseEntity.ok(tokenService.emitir(autenticado)))
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciais inválidas")));
     }
 
     @PostMapping("/cadastro")
-    public ResponseEntity<String> cadastro(@RequestBody CadastroRequest cadastroRequest) {
+    public CompletableFuture<ResponseEntity<String>> cadastro(@RequestBody CadastroRequest cadastroRequest, HttpServletRequest request) {
+        limitadorTaxa.verificar(request, LimitadorTaxa.Dimensao.EMAIL, cadastroRequest.getEmail());
+
+        Usuario usuario = new Usuario();
+        usuario.setNome(cadastroRequest.getNome());
+        usuario.setEmail(cadastroRequest.getEmail());
 
-        return ResponseEntity.ok("Usuário cadastrado com sucesso");
+        return usuarioService.cadastrar(usuario, cadastroRequest.getSenha())
+                .thenApply(salvo -> ResponseEntity.ok("Usuário cadastrado com sucesso"));
     }
 }
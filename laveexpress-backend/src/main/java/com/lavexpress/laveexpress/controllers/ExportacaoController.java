@@ -0,0 +1,85 @@
+package com.lavexpress.laveexpress.controllers;
+
+import com.lavexpress.laveexpress.services.ExportacaoService;
+import com.lavexpress.laveexpress.services.ExportacaoService.Formato;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/exportacoes")
+public class ExportacaoController {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+
+    // Histórico completo de agendamentos do lava-jato; período padrão: últimos 12 meses
+    @GetMapping("/lavajatos/{lavaJatoId}/agendamentos")
+    public ResponseEntity<StreamingResponseBody> agendamentos(@PathVariable Long lavaJatoId,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                                              @RequestParam(defaultValue = "csv") String formato,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LocalDate ate = fim != null ? fim : LocalDate.now();
+        LocalDate de = inicio != null ? inicio : ate.minusYears(1);
+        if (de.isAfter(ate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "inicio deve ser anterior a fim.");
+        }
+        Formato tipo = Formato.de(formato);
+        return exportar("agendamentos-" + lavaJatoId + "-" + de + "-" + ate, tipo, acceptEncoding,
+                saida -> exportacaoService.exportarAgendamentos(lavaJatoId, de, ate, tipo, saida));
+    }
+
+
+    // Receita por dia e tipo de serviço
+    @GetMapping("/lavajatos/{lavaJatoId}/financeiro")
+    public ResponseEntity<StreamingResponseBody> financeiro(@PathVariable Long lavaJatoId,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                                            @RequestParam(defaultValue = "csv") String formato,
+                                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LocalDate ate = fim != null ? fim : LocalDate.now();
+        LocalDate de = inicio != null ? inicio : ate.minusYears(1);
+        if (de.isAfter(ate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "inicio deve ser anterior a fim.");
+        }
+        Formato tipo = Formato.de(formato);
+        return exportar("financeiro-" + lavaJatoId + "-" + de + "-" + ate, tipo, acceptEncoding,
+                saida -> exportacaoService.exportarReceita(lavaJatoId, de, ate, tipo, saida));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportar(String nome, Formato formato, String acceptEncoding,
+                                                           StreamingResponseBody conteudo) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody corpo = saida -> {
+            if (!gzip) {
+                conteudo.writeTo(saida);
+                return;
+            }
+            GZIPOutputStream compactado = new GZIPOutputStream(saida, 1 << 16);
+            conteudo.writeTo(compactado);
+            compactado.finish();
+        };
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(formato.mediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(nome + "." + formato.extensao())
+                        .build()
+                        .toString());
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(corpo);
+    }
+}
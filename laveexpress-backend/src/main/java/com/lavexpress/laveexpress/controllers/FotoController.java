@@ -0,0 +1,67 @@
+package com.lavexpress.laveexpress.controllers;
+
+import com.lavexpress.laveexpress.services.FotoService;
+import com.lavexpress.laveexpress.services.FotoService.Foto;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/fotos")
+public class FotoController {
+
+    // Atributos do Tomcat para sendfile: o arquivo vai do page cache para o socket sem passar pela JVM
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private FotoService fotoService;
+
+
+    // {nome} é o photoPath do usuário; tamanho escolhe uma das miniaturas. Não consulta o banco.
+    @GetMapping("/{nome}")
+    public ResponseEntity<Resource> foto(@PathVariable String nome,
+                                         @RequestParam(required = false) Integer tamanho,
+                                         HttpServletRequest request) {
+        Foto foto = fotoService.abrir(nome, tamanho).orElse(null);
+        if (foto == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(foto.tipo())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (foto.definitiva()) {
+            // O nome é o hash do conteúdo: o mesmo nome nunca aponta para outros bytes
+            resposta.eTag(foto.arquivo().getFileName().toString())
+                    .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+        } else {
+            resposta.cacheControl(CacheControl.noStore());
+        }
+
+        // Resposta inteira: sendfile. Range e If-None-Match ficam com o Spring (206 com
+        // ResourceRegion, 304), que copia em blocos de tamanho fixo.
+        if (HttpMethod.GET.matches(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            request.setAttribute(SENDFILE_ARQUIVO, foto.arquivo().toString());
+            request.setAttribute(SENDFILE_INICIO, 0L);
+            request.setAttribute(SENDFILE_FIM, foto.tamanho());
+            return resposta.contentLength(foto.tamanho()).build();
+        }
+        return resposta.body(new FileSystemResource(foto.arquivo()));
+    }
+}
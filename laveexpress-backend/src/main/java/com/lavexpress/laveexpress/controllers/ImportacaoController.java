@@ -0,0 +1,34 @@
+package com.lavexpress.laveexpress.controllers;
+
+import com.lavexpress.laveexpress.dtos.ImportacaoDto;
+import com.lavexpress.laveexpress.services.ImportacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/importacoes")
+public class ImportacaoController {
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+
+    // 202 na hora; o progresso e os erros por linha ficam em GET /api/importacoes/{id}
+    @PostMapping(consumes = "multipart/form-data")
+    public ResponseEntity<ImportacaoDto> importar(@RequestParam("arquivo") MultipartFile arquivo) {
+        ImportacaoDto importacao = importacaoService.iniciar(arquivo);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/importacoes/" + importacao.id()))
+                .body(importacao);
+    }
+
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportacaoDto> buscar(@PathVariable String id) {
+        return ResponseEntity.of(importacaoService.buscar(id));
+    }
+}
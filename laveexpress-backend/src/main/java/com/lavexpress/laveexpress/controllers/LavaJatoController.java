@@ -1,4 +1,140 @@
 package com.lavexpress.laveexpress.controllers;
 
-public class LavaJatoController {
+import com.lavexpress.laveexpress.bases.BaseController;
+import com.lavexpress.laveexpress.bases.BaseMapper;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.LimiteStatements;
+import com.lavexpress.laveexpress.dtos.LavaJatoBuscaDto;
+import com.lavexpress.laveexpress.dtos.LavaJatoDto;
+import com.lavexpress.laveexpress.dtos.LavaJatoFilter;
+import com.lavexpress.laveexpress.dtos.LavaJatoProximoDto;
+import com.lavexpress.laveexpress.dtos.PaginaDto;
+import com.lavexpress.laveexpress.dtos.ResumoPeriodoDto;
+import com.lavexpress.laveexpress.dtos.ResumoTipoDto;
+import com.lavexpress.laveexpress.dtos.ServicoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.mappers.LavaJatoMapper;
+import com.lavexpress.laveexpress.services.LavaJatoService;
+import com.lavexpress.laveexpress.services.ResumoService;
+import com.lavexpress.laveexpress.services.ServicoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lavajatos")
+public class LavaJatoController extends BaseController<LavaJato, LavaJatoDto> {
+
+    @Autowired
+    private LavaJatoService lavaJatoService;
+
+    @Autowired
+    private ServicoService servicoService;
+
+    @Autowired
+    private ResumoService resumoService;
+
+    @Autowired
+    private LavaJatoMapper mapper;
+
+    @Override
+    protected BaseService<LavaJato> getService() {
+        return lavaJatoService;
+    }
+
+    @Override
+    protected BaseMapper<LavaJato, LavaJatoDto> getMapper() {
+        return mapper;
+    }
+
+
+    @GetMapping
+    @LimiteStatements(2)
+    public ResponseEntity<PaginaDto<LavaJatoDto>> listar(@RequestParam(defaultValue = "0") int pagina,
+                                                         @RequestParam(defaultValue = "20") int tamanho,
+                                                         @ModelAttribute LavaJatoFilter filtro) {
+        return paginar(pagina, tamanho, filtro);
+    }
+
+
+    @GetMapping("/cursor")
+    @LimiteStatements(1)
+    public ResponseEntity<PaginaDto<LavaJatoDto>> listarAPartirDe(@RequestParam(required = false) Long cursor,
+                                                                  @RequestParam(defaultValue = "20") int tamanho,
+                                                                  @ModelAttribute LavaJatoFilter filtro) {
+        return paginarAPartirDe(cursor, tamanho, filtro);
+    }
+
+
+    @GetMapping("/proximos")
+    public ResponseEntity<List<LavaJatoProximoDto>> proximos(@RequestParam double latitude,
+                                                             @RequestParam double longitude,
+                                                             @RequestParam(defaultValue = "10") double raioKm,
+                                                             @RequestParam(defaultValue = "20") int k,
+                                                             @RequestParam(required = false) String tipo) {
+        return ResponseEntity.ok(lavaJatoService.proximos(latitude, longitude, raioKm, k, tipo));
+    }
+
+
+    @GetMapping("/busca")
+    @LimiteStatements(1)
+    public ResponseEntity<List<LavaJatoBuscaDto>> buscarTexto(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(lavaJatoService.buscarTexto(q, limite));
+    }
+
+
+    @GetMapping("/{id}")
+    public ResponseEntity<LavaJatoDto> buscar(@PathVariable Long id) {
+        return ResponseEntity.of(lavaJatoService.buscar(id));
+    }
+
+
+    @GetMapping("/{id}/servicos")
+    public ResponseEntity<List<ServicoDto>> servicos(@PathVariable Long id) {
+        return ResponseEntity.ok(servicoService.listarDoLavaJato(id));
+    }
+
+
+    @GetMapping("/por-tipo")
+    public ResponseEntity<List<LavaJatoDto>> porTipo(@RequestParam String tipo) {
+        return ResponseEntity.ok(lavaJatoService.listarPorTipo(tipo));
+    }
+
+
+    @GetMapping("/{id}/resumo")
+    @LimiteStatements(2)
+    public ResponseEntity<List<ResumoPeriodoDto>> resumo(@PathVariable Long id,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                                         @RequestParam(defaultValue = "dia") String granularidade) {
+        validarPeriodo(inicio, fim);
+        return ResponseEntity.ok(resumoService.porPeriodo(id, inicio, fim, ResumoService.Granularidade.de(granularidade)));
+    }
+
+
+    @GetMapping("/{id}/resumo/tipos")
+    @LimiteStatements(1)
+    public ResponseEntity<List<ResumoTipoDto>> resumoPorTipo(@PathVariable Long id,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        validarPeriodo(inicio, fim);
+        return ResponseEntity.ok(resumoService.porTipo(id, inicio, fim));
+    }
+
+    // Cinco anos em baldes diários já são ~1800 itens na resposta
+    private static void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (inicio.isAfter(fim)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Início deve ser anterior ao fim.");
+        }
+        if (inicio.plusYears(5).isBefore(fim)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Período máximo de 5 anos.");
+        }
+    }
 }
@@ -1,4 +1,86 @@
 package com.lavexpress.laveexpress.controllers;
 
-public class ServicoController {
+import com.lavexpress.laveexpress.bases.BaseController;
+import com.lavexpress.laveexpress.bases.BaseMapper;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.LimiteStatements;
+import com.lavexpress.laveexpress.dtos.PaginaDto;
+import com.lavexpress.laveexpress.dtos.ServicoDto;
+import com.lavexpress.laveexpress.dtos.ServicoFilter;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.mappers.ServicoMapper;
+import com.lavexpress.laveexpress.security.UsuarioAutenticado;
+import com.lavexpress.laveexpress.services.LavaJatoService;
+import com.lavexpress.laveexpress.services.ServicoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/servicos")
+public class ServicoController extends BaseController<Servico, ServicoDto> {
+
+    private static final int TAMANHO_MAXIMO_LOTE = 1000;
+
+    @Autowired
+    private ServicoService servicoService;
+
+    @Autowired
+    private LavaJatoService lavaJatoService;
+
+    @Autowired
+    private ServicoMapper mapper;
+
+    @Override
+    protected BaseService<Servico> getService() {
+        return servicoService;
+    }
+
+    @Override
+    protected BaseMapper<Servico, ServicoDto> getMapper() {
+        return mapper;
+    }
+
+
+    @GetMapping
+    @LimiteStatements(2)
+    public ResponseEntity<PaginaDto<ServicoDto>> listar(@RequestParam(defaultValue = "0") int pagina,
+                                                        @RequestParam(defaultValue = "20") int tamanho,
+                                                        @ModelAttribute ServicoFilter filtro) {
+        return paginar(pagina, tamanho, filtro);
+    }
+
+
+    @GetMapping("/cursor")
+    @LimiteStatements(1)
+    public ResponseEntity<PaginaDto<ServicoDto>> listarAPartirDe(@RequestParam(required = false) Long cursor,
+                                                                 @RequestParam(defaultValue = "20") int tamanho,
+                                                                 @ModelAttribute ServicoFilter filtro) {
+        return paginarAPartirDe(cursor, tamanho, filtro);
+    }
+
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ServicoDto> buscar(@PathVariable Long id) {
+        return ResponseEntity.of(servicoService.buscar(id));
+    }
+
+
+    @PostMapping("/lote")
+    public ResponseEntity<List<ServicoDto>> salvarLote(@RequestParam Long lavaJatoId, @RequestBody List<ServicoDto> dtos,
+                                                       @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        if (!autenticado.admin()) {
+            lavaJatoService.verificarProprietario(lavaJatoId, autenticado);
+        }
+        if (dtos.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Máximo de " + TAMANHO_MAXIMO_LOTE + " itens por lote.");
+        }
+        List<Servico> salvos = servicoService.salvarCatalogo(lavaJatoId, dtos.stream().map(mapper::dtoToEntity).toList());
+        return ResponseEntity.status(HttpStatus.CREATED).body(salvos.stream().map(mapper::entityToDto).toList());
+    }
 }
@@ -0,0 +1,25 @@
+package com.lavexpress.laveexpress.controllers;
+
+import com.lavexpress.laveexpress.dtos.SugestaoDto;
+import com.lavexpress.laveexpress.services.SugestaoIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sugestoes")
+public class SugestaoController {
+
+    @Autowired
+    private SugestaoIndex sugestaoIndex;
+
+
+    // Chamado a cada tecla: só memória, nenhum acesso ao banco
+    @GetMapping
+    public ResponseEntity<List<SugestaoDto>> sugerir(@RequestParam String q,
+                                                     @RequestParam(defaultValue = "8") int limite) {
+        return ResponseEntity.ok(sugestaoIndex.sugerir(q, limite));
+    }
+}
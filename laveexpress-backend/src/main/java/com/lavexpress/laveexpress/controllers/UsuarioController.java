@@ -1,55 +1,125 @@
 package com.lavexpress.laveexpress.controllers;
 
+import com.lavexpress.laveexpress.bases.BaseController;
+import com.lavexpress.laveexpress.bases.BaseMapper;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.LimiteStatements;
+import com.lavexpress.laveexpress.dtos.PaginaDto;
+import com.lavexpress.laveexpress.dtos.PerfilDto;
+import com.lavexpress.laveexpress.dtos.TokenDto;
+import com.lavexpress.laveexpress.dtos.UsuarioDto;
+import com.lavexpress.laveexpress.dtos.UsuarioFilter;
+import com.lavexpress.laveexpress.dtos.UsuarioResumoDto;
 import com.lavexpress.laveexpress.entities.Usuario;
-import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import com.lavexpress.laveexpress.mappers.UsuarioMapper;
+import com.lavexpress.laveexpress.security.TokenService;
+import com.lavexpress.laveexpress.security.UsuarioAutenticado;
+import com.lavexpress.laveexpress.services.FotoService;
+import com.lavexpress.laveexpress.services.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
-public class UsuarioController {
+public class UsuarioController extends BaseController<Usuario, UsuarioDto> {
 
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioMapper mapper;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private FotoService fotoService;
+
+    @Override
+    protected BaseService<Usuario> getService() {
+        return usuarioService;
+    }
+
+    @Override
+    protected BaseMapper<Usuario, UsuarioDto> getMapper() {
+        return mapper;
+    }
+
+
+    // Só ADMIN (SecurityConfig); mesmo assim a listagem não leva o CPF
+    @GetMapping("/usuarios")
+    @LimiteStatements(2)
+    public ResponseEntity<PaginaDto<UsuarioResumoDto>> listar(@RequestParam(defaultValue = "0") int pagina,
+                                                              @RequestParam(defaultValue = "20") int tamanho,
+                                                              @ModelAttribute UsuarioFilter filtro) {
+        return paginar(pagina, tamanho, filtro, mapper::entityToResumo);
+    }
+
+
+    @GetMapping("/usuarios/cursor")
+    @LimiteStatements(1)
+    public ResponseEntity<PaginaDto<UsuarioResumoDto>> listarAPartirDe(@RequestParam(required = false) Long cursor,
+                                                                       @RequestParam(defaultValue = "20") int tamanho,
+                                                                       @ModelAttribute UsuarioFilter filtro) {
+        return paginarAPartirDe(cursor, tamanho, filtro, mapper::entityToResumo);
+    }
+
+
+    @GetMapping("/usuarios/{id}/perfil")
+    @LimiteStatements(1)
+    public ResponseEntity<PerfilDto> perfil(@PathVariable Long id,
+                                            @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        if (autenticado == null || !autenticado.podeAcessar(id)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Só o próprio usuário pode ver o perfil.");
+        }
+        return ResponseEntity.of(usuarioService.perfil(id));
+    }
+
+
+    // Devolve o novo photoPath, servido em GET /api/fotos/{photoPath}
+    @PutMapping(value = "/usuarios/{id}/foto", consumes = "multipart/form-data")
+    public ResponseEntity<String> foto(@PathVariable Long id,
+                                       @RequestParam("arquivo") MultipartFile arquivo,
+                                       @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        if (autenticado == null || !autenticado.id().equals(id)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Só o próprio usuário pode trocar a foto.");
+        }
+        return ResponseEntity.ok(fotoService.salvar(id, arquivo));
+    }
 
 
     @PostMapping("/usuarios")
-    public ResponseEntity<String> cadastrarUsuario(@RequestParam String nome,
-                                                   @RequestParam String email,
-                                                   @RequestParam String senha,
-                                                   @RequestParam String cpf,
-                                                   @RequestParam String telefone) {
+    public CompletableFuture<ResponseEntity<String>> cadastrarUsuario(@RequestParam String nome,
+                                                                      @RequestParam String email,
+                                                                      @RequestParam String senha,
+                                                                      @RequestParam String cpf,
+                                                                      @RequestParam String telefone) {
 
         Usuario usuario = new Usuario();
         usuario.setNome(nome);
         usuario.setEmail(email);
-        usuario.setSenha(senha);
         usuario.setCpf(cpf);
         usuario.setTelefone(telefone);
 
-        usuarioRepository.save(usuario);
-
-        return ResponseEntity.status(201).body("Usuário cadastrado com sucesso!");
+        return usuarioService.cadastrar(usuario, senha)
+                .thenApply(salvo -> ResponseEntity.status(201).body("Usuário cadastrado com sucesso!"));
     }
 
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestParam String email,
-                                        @RequestParam String senha) {
-        Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
-
-        if (usuarioOpt.isPresent()) {
-            Usuario usuario = usuarioOpt.get();
-            if (usuario.getSenha().equals(senha)) {
-                return ResponseEntity.ok("Login realizado com sucesso!");
-            } else {
-                return ResponseEntity.status(401).body("Senha incorreta.");
-            }
-        } else {
-            return ResponseEntity.status(404).body("Usuário não encontrado.");
-        }
+    public CompletableFuture<ResponseEntity<TokenDto>> login(@RequestParam String email,
+                                                             @RequestParam String senha) {
+        // Mesma resposta para e-mail desconhecido e senha errada, como em /api/auth/login
+        return usuarioService.autenticar(email, senha)
+                .thenApply(usuario -> usuario
+                        .map(autenticado -> ResponseEntity.ok(tokenService.emitir(autenticado)))
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciais inválidas.")));
     }
 }
@@ -1,4 +1,76 @@
 package com.lavexpress.laveexpress.controllers;
 
-public class VeiculoController {
+import com.lavexpress.laveexpress.bases.BaseController;
+import com.lavexpress.laveexpress.bases.BaseMapper;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.LimiteStatements;
+import com.lavexpress.laveexpress.dtos.PaginaDto;
+import com.lavexpress.laveexpress.dtos.VeiculoDto;
+import com.lavexpress.laveexpress.dtos.VeiculoFilter;
+import com.lavexpress.laveexpress.entities.Veiculo;
+import com.lavexpress.laveexpress.mappers.VeiculoMapper;
+import com.lavexpress.laveexpress.security.UsuarioAutenticado;
+import com.lavexpress.laveexpress.services.VeiculoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/veiculos")
+public class VeiculoController extends BaseController<Veiculo, VeiculoDto> {
+
+    private static final int TAMANHO_MAXIMO_LOTE = 1000;
+
+    @Autowired
+    private VeiculoService veiculoService;
+
+    @Autowired
+    private VeiculoMapper mapper;
+
+    @Override
+    protected BaseService<Veiculo> getService() {
+        return veiculoService;
+    }
+
+    @Override
+    protected BaseMapper<Veiculo, VeiculoDto> getMapper() {
+        return mapper;
+    }
+
+
+    @GetMapping
+    @LimiteStatements(2)
+    public ResponseEntity<PaginaDto<VeiculoDto>> listar(@RequestParam(defaultValue = "0") int pagina,
+                                                        @RequestParam(defaultValue = "20") int tamanho,
+                                                        @ModelAttribute VeiculoFilter filtro) {
+        return paginar(pagina, tamanho, filtro);
+    }
+
+
+    @GetMapping("/cursor")
+    @LimiteStatements(1)
+    public ResponseEntity<PaginaDto<VeiculoDto>> listarAPartirDe(@RequestParam(required = false) Long cursor,
+                                                                 @RequestParam(defaultValue = "20") int tamanho,
+                                                                 @ModelAttribute VeiculoFilter filtro) {
+        return paginarAPartirDe(cursor, tamanho, filtro);
+    }
+
+
+    @PostMapping("/lote")
+    public ResponseEntity<List<VeiculoDto>> salvarLote(@RequestParam Long usuarioId, @RequestBody List<VeiculoDto> dtos,
+                                                       @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+        if (!autenticado.id().equals(usuarioId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Só o próprio usuário pode cadastrar a frota.");
+        }
+        if (dtos.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Máximo de " + TAMANHO_MAXIMO_LOTE + " itens por lote.");
+        }
+        List<Veiculo> salvos = veiculoService.salvarFrota(usuarioId, dtos.stream().map(mapper::dtoToEntity).toList());
+        return ResponseEntity.status(HttpStatus.CREATED).body(salvos.stream().map(mapper::entityToDto).toList());
+    }
 }
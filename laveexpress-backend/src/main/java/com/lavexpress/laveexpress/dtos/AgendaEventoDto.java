@@ -0,0 +1,7 @@
+package com.lavexpress.laveexpress.dtos;
+
+// Mudança na agenda de um lava-jato (criado/alterado/cancelado), repassada às outras instâncias
+public record AgendaEventoDto(String evento,
+                              Long lavaJatoId,
+                              AgendaItemDto item) {
+}
@@ -0,0 +1,14 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalDateTime;
+
+public record AgendaItemDto(Long id,
+                            LocalDateTime horario,
+                            Integer box,
+                            Double valor,
+                            Long servicoId,
+                            String servicoTipo,
+                            Long usuarioId,
+                            String usuarioNome,
+                            String usuarioTelefone) {
+}
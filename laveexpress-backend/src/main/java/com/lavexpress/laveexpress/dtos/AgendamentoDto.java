@@ -1,4 +1,13 @@
 package com.lavexpress.laveexpress.dtos;
 
-public record AgendamentoDto() {
+import java.time.LocalDateTime;
+
+public record AgendamentoDto(Long id,
+                             LocalDateTime horario,
+                             Double valor,
+                             String tipo,
+                             Integer box,
+                             Long servicoId,
+                             Long usuarioId,
+                             Long lavaJatoId) {
 }
@@ -0,0 +1,13 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalDateTime;
+
+// Payload dos eventos de agendamento na caixa de saída
+public record AgendamentoEventoDto(Long agendamentoId,
+                                   Long lavaJatoId,
+                                   Long usuarioId,
+                                   LocalDateTime horario,
+                                   Integer box,
+                                   String servicoTipo,
+                                   Double valor) {
+}
@@ -0,0 +1,12 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalDateTime;
+
+public record AgendamentoExportadoDto(Long id,
+                                      LocalDateTime horario,
+                                      Integer box,
+                                      String servicoTipo,
+                                      Double valor,
+                                      Long usuarioId,
+                                      String usuarioNome) {
+}
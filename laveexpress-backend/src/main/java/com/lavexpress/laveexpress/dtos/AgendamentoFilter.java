@@ -0,0 +1,38 @@
+package com.lavexpress.laveexpress.dtos;
+
+import com.lavexpress.laveexpress.bases.BaseFilter;
+import com.lavexpress.laveexpress.entities.Agendamento;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record AgendamentoFilter(Long lavaJatoId,
+                                Long usuarioId,
+                                Long servicoId,
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) implements BaseFilter<Agendamento> {
+
+    @Override
+    public Specification<Agendamento> toSpecification() {
+        List<Specification<Agendamento>> filtros = new ArrayList<>();
+        if (lavaJatoId != null) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("lavaJato").get("id"), lavaJatoId));
+        }
+        if (usuarioId != null) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("usuario").get("id"), usuarioId));
+        }
+        if (servicoId != null) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("servico").get("id"), servicoId));
+        }
+        if (de != null) {
+            filtros.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("horario"), de));
+        }
+        if (ate != null) {
+            filtros.add((root, query, cb) -> cb.lessThan(root.get("horario"), ate));
+        }
+        return Specification.allOf(filtros);
+    }
+}
@@ -0,0 +1,9 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record CacheEstatisticaDto(String nome,
+                                  long tamanho,
+                                  long acertos,
+                                  long falhas,
+                                  double taxaAcerto,
+                                  long remocoes) {
+}
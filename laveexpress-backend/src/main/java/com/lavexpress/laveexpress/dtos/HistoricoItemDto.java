@@ -0,0 +1,13 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalDateTime;
+
+public record HistoricoItemDto(Long id,
+                               LocalDateTime horario,
+                               Double valor,
+                               Long servicoId,
+                               String servicoTipo,
+                               Long lavaJatoId,
+                               String lavaJatoNome,
+                               String lavaJatoEndereco) {
+}
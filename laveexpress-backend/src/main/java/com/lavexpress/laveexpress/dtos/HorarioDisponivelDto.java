@@ -0,0 +1,6 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalTime;
+
+public record HorarioDisponivelDto(LocalTime horario, int vagas) {
+}
@@ -0,0 +1,16 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ImportacaoDto(String id,
+                            String arquivo,
+                            String status,
+                            long linhasLidas,
+                            long importadas,
+                            long comErro,
+                            Instant inicio,
+                            Instant fim,
+                            String mensagem,
+                            List<ErroImportacaoDto> erros) {
+}
@@ -1,4 +1,18 @@
 package com.lavexpress.laveexpress.dtos;
 
-public record LavaJatoDto() {
+import java.time.LocalTime;
+
+public record LavaJatoDto(Long id,
+                          String nome,
+                          String endereco,
+                          String telefone,
+                          String email,
+                          String cnpj,
+                          Double latitude,
+                          Double longitude,
+                          Integer quantidadeBoxes,
+                          LocalTime horarioAbertura,
+                          LocalTime horarioFechamento,
+                          Integer duracaoSlotMinutos,
+                          Long proprietarioId) {
 }
@@ -0,0 +1,28 @@
+package com.lavexpress.laveexpress.dtos;
+
+import com.lavexpress.laveexpress.bases.BaseFilter;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public record LavaJatoFilter(String nome, String cnpj, Long proprietarioId) implements BaseFilter<LavaJato> {
+
+    @Override
+    public Specification<LavaJato> toSpecification() {
+        List<Specification<LavaJato>> filtros = new ArrayList<>();
+        if (nome != null && !nome.isBlank()) {
+            // Só prefixo: "%nome%" não aproveitaria índice
+            filtros.add((root, query, cb) -> cb.like(cb.lower(root.get("nome")), nome.trim().toLowerCase(Locale.ROOT) + "%"));
+        }
+        if (cnpj != null && !cnpj.isBlank()) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("cnpj"), cnpj));
+        }
+        if (proprietarioId != null) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("proprietario").get("id"), proprietarioId));
+        }
+        return Specification.allOf(filtros);
+    }
+}
@@ -0,0 +1,4 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record LavaJatoProximoDto(LavaJatoDto lavaJato, double distanciaKm) {
+}
@@ -0,0 +1,4 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record MarcaModeloDto(String marca, String modelo, Long quantidade) {
+}
@@ -0,0 +1,6 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.util.List;
+
+public record PaginaDto<T>(List<T> itens, Long total, Long proximoCursor) {
+}
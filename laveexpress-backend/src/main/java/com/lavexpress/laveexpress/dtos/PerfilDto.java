@@ -0,0 +1,7 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.util.List;
+
+// Sem CPF, como a listagem de usuários
+public record PerfilDto(UsuarioResumoDto usuario, List<VeiculoDto> veiculos) {
+}
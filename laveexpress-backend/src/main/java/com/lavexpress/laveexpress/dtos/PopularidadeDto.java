@@ -0,0 +1,4 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record PopularidadeDto(Long lavaJatoId, String servicoTipo, Long quantidade) {
+}
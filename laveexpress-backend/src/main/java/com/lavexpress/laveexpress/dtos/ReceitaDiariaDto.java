@@ -0,0 +1,9 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalDate;
+
+public record ReceitaDiariaDto(LocalDate dia,
+                               String servicoTipo,
+                               Long quantidade,
+                               Double receita) {
+}
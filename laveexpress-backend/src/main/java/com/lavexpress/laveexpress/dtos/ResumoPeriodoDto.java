@@ -0,0 +1,10 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalDate;
+
+public record ResumoPeriodoDto(LocalDate inicio,
+                               LocalDate fim,
+                               long quantidade,
+                               double receita,
+                               double ocupacao) {
+}
@@ -0,0 +1,6 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record ResumoTipoDto(String servicoTipo,
+                            long quantidade,
+                            double receita) {
+}
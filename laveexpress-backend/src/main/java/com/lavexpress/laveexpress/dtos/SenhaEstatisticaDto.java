@@ -0,0 +1,9 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record SenhaEstatisticaDto(int threads,
+                                  int ativas,
+                                  int fila,
+                                  int capacidadeFila,
+                                  long concluidas,
+                                  long rejeitadas) {
+}
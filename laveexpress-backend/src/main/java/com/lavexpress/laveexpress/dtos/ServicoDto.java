@@ -1,4 +1,8 @@
 package com.lavexpress.laveexpress.dtos;
 
-public record ServicoDto() {
+public record ServicoDto(Long id,
+                         String descricao,
+                         String tipo,
+                         Double valor,
+                         Long lavaJatoId) {
 }
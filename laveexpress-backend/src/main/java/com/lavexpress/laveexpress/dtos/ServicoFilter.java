@@ -0,0 +1,27 @@
+package com.lavexpress.laveexpress.dtos;
+
+import com.lavexpress.laveexpress.bases.BaseFilter;
+import com.lavexpress.laveexpress.entities.Servico;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public record ServicoFilter(Long lavaJatoId, String tipo, Double valorMaximo) implements BaseFilter<Servico> {
+
+    @Override
+    public Specification<Servico> toSpecification() {
+        List<Specification<Servico>> filtros = new ArrayList<>();
+        if (lavaJatoId != null) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("lavaJato").get("id"), lavaJatoId));
+        }
+        if (tipo != null && !tipo.isBlank()) {
+            filtros.add((root, query, cb) -> cb.equal(cb.lower(root.get("tipo")), tipo.trim().toLowerCase(Locale.ROOT)));
+        }
+        if (valorMaximo != null) {
+            filtros.add((root, query, cb) -> cb.le(root.get("valor"), valorMaximo));
+        }
+        return Specification.allOf(filtros);
+    }
+}
@@ -0,0 +1,6 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.LocalDateTime;
+
+public record SlotOcupadoDto(Long id, Long lavaJatoId, LocalDateTime horario) {
+}
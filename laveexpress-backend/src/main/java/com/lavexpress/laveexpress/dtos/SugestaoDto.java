@@ -0,0 +1,6 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record SugestaoDto(String texto,
+                          String categoria,
+                          Long lavaJatoId) {
+}
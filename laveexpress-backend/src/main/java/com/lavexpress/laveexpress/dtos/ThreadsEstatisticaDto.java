@@ -0,0 +1,10 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.util.Map;
+
+public record ThreadsEstatisticaDto(boolean virtuais,
+                                    boolean monitorPinning,
+                                    long eventosPinning,
+                                    long pinningMaximoMs,
+                                    Map<String, Long> pinningPorOrigem) {
+}
@@ -0,0 +1,4 @@
+package com.lavexpress.laveexpress.dtos;
+
+public record TipoServicoDto(Long lavaJatoId, String tipo) {
+}
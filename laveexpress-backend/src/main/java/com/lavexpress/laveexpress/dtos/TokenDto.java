@@ -0,0 +1,6 @@
+package com.lavexpress.laveexpress.dtos;
+
+import java.time.Instant;
+
+public record TokenDto(String token, String tipo, Instant expiraEm) {
+}
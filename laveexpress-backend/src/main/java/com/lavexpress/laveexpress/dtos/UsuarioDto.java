@@ -1,4 +1,9 @@
 package com.lavexpress.laveexpress.dtos;
 
-public record UsuarioDto() {
+public record UsuarioDto(Long id,
+                         String nome,
+                         String email,
+                         String cpf,
+                         String telefone,
+                         String photoPath) {
 }
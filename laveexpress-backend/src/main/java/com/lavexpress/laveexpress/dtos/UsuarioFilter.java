@@ -0,0 +1,27 @@
+package com.lavexpress.laveexpress.dtos;
+
+import com.lavexpress.laveexpress.bases.BaseFilter;
+import com.lavexpress.laveexpress.entities.Usuario;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public record UsuarioFilter(String nome, String email, String cpf) implements BaseFilter<Usuario> {
+
+    @Override
+    public Specification<Usuario> toSpecification() {
+        List<Specification<Usuario>> filtros = new ArrayList<>();
+        if (nome != null && !nome.isBlank()) {
+            filtros.add((root, query, cb) -> cb.like(cb.lower(root.get("nome")), nome.trim().toLowerCase(Locale.ROOT) + "%"));
+        }
+        if (email != null && !email.isBlank()) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("email"), email));
+        }
+        if (cpf != null && !cpf.isBlank()) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("cpf"), cpf));
+        }
+        return Specification.allOf(filtros);
+    }
+}
@@ -0,0 +1,9 @@
+package com.lavexpress.laveexpress.dtos;
+
+// Item da listagem de usuários (tela de clientes do admin): sem CPF
+public record UsuarioResumoDto(Long id,
+                               String nome,
+                               String email,
+                               String telefone,
+                               String photoPath) {
+}
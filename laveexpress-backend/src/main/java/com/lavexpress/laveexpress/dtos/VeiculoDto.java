@@ -1,4 +1,9 @@
 package com.lavexpress.laveexpress.dtos;
 
-public record VeiculoDto() {
+public record VeiculoDto(Long id,
+                         String placa,
+                         String modelo,
+                         String ano,
+                         String marca,
+                         Long usuarioId) {
 }
@@ -0,0 +1,26 @@
+package com.lavexpress.laveexpress.dtos;
+
+import com.lavexpress.laveexpress.bases.BaseFilter;
+import com.lavexpress.laveexpress.entities.Veiculo;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record VeiculoFilter(Long usuarioId, String placa, String marca) implements BaseFilter<Veiculo> {
+
+    @Override
+    public Specification<Veiculo> toSpecification() {
+        List<Specification<Veiculo>> filtros = new ArrayList<>();
+        if (usuarioId != null) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("proprietario").get("id"), usuarioId));
+        }
+        if (placa != null && !placa.isBlank()) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("placa"), placa));
+        }
+        if (marca != null && !marca.isBlank()) {
+            filtros.add((root, query, cb) -> cb.equal(root.get("marca"), marca));
+        }
+        return Specification.allOf(filtros);
+    }
+}
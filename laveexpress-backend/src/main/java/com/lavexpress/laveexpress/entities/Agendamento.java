@@ -1,15 +1,28 @@
 package com.lavexpress.laveexpress.entities;
 
+import com.lavexpress.laveexpress.bases.BaseEntity;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "agendamento")
-public class Agendamento {
+@NamedEntityGraph(name = "Agendamento.agenda", attributeNodes = {
+        @NamedAttributeNode("servico"),
+        @NamedAttributeNode("usuario")
+})
+@NamedEntityGraph(name = "Agendamento.historico", attributeNodes = {
+        @NamedAttributeNode("servico"),
+        @NamedAttributeNode("lavaJato")
+})
+@Table(name = "agendamento", uniqueConstraints = {
+        // Garante no banco que um box não é reservado duas vezes no mesmo horário
+        @UniqueConstraint(name = "uk_agendamento_slot", columnNames = {"lava_jato_id", "horario", "box"})
+})
+public class Agendamento implements BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agendamento_seq")
+    @SequenceGenerator(name = "agendamento_seq", sequenceName = "agendamento_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime horario;
@@ -18,15 +31,17 @@ public class Agendamento {
 
     private String tipo;
 
-    @ManyToOne
+    private Integer box;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "servico_id", nullable = false)
     private Servico servico;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lava_jato_id", nullable = false)
     private LavaJato lavaJato;
 
@@ -43,6 +58,7 @@ public class Agendamento {
         this.lavaJato = lavaJato;
     }
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -75,6 +91,14 @@ public class Agendamento {
         this.tipo = tipo;
     }
 
+    public Integer getBox() {
+        return box;
+    }
+
+    public void setBox(Integer box) {
+        this.box = box;
+    }
+
     public Servico getServico() {
         return servico;
     }
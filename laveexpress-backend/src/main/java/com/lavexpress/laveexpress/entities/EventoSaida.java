@@ -0,0 +1,105 @@
+package com.lavexpress.laveexpress.entities;
+
+import com.lavexpress.laveexpress.bases.BaseEntity;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Só é inserido pela aplicação (EventoSaidaService); status, tentativas e datas de envio são
+// atualizados pelo DespachoEventos direto em SQL.
+@Entity
+@Table(name = "evento_saida")
+public class EventoSaida implements BaseEntity {
+
+    public static final String PENDENTE = "PENDENTE";
+
+    public static final String ENVIADO = "ENVIADO";
+
+    public static final String FALHOU = "FALHOU";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_saida_seq")
+    @SequenceGenerator(name = "evento_saida_seq", sequenceName = "evento_saida_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String tipo;
+
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private Instant proximaTentativa;
+
+    @Column(name = "enviado_em")
+    private Instant enviadoEm;
+
+    @Column(length = 500)
+    private String erro;
+
+
+    public EventoSaida() {
+    }
+
+    public EventoSaida(String tipo, Long agregadoId, String payload) {
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.payload = payload;
+        this.status = PENDENTE;
+        this.criadoEm = Instant.now();
+        this.proximaTentativa = this.criadoEm;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Long getAgregadoId() {
+        return agregadoId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public Instant getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public Instant getEnviadoEm() {
+        return enviadoEm;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+}
@@ -1,14 +1,18 @@
 package com.lavexpress.laveexpress.entities;
 
+import com.lavexpress.laveexpress.bases.BaseEntity;
 import jakarta.persistence.*;
 
+import java.time.LocalTime;
+
 @Entity
 @Table(name = "lavaJato")
-public class LavaJato {
+public class LavaJato implements BaseEntity {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lava_jato_seq")
+    @SequenceGenerator(name = "lava_jato_seq", sequenceName = "lava_jato_seq", allocationSize = 50)
     private Long id;
 
     private String nome;
@@ -21,10 +25,22 @@ public class LavaJato {
 
     private String cnpj;
 
-    @OneToOne
+    private Double latitude;
+
+    private Double longitude;
+
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
     private Usuario proprietario;
 
+    private Integer quantidadeBoxes = 1;
+
+    private LocalTime horarioAbertura = LocalTime.of(8, 0);
+
+    private LocalTime horarioFechamento = LocalTime.of(18, 0);
+
+    private Integer duracaoSlotMinutos = 30;
+
     public LavaJato() {
     }
 
@@ -38,6 +54,7 @@ public class LavaJato {
         this.proprietario = proprietario;
     }
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -86,6 +103,22 @@ public class LavaJato {
         this.cnpj = cnpj;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public Usuario getProprietario() {
         return proprietario;
     }
@@ -93,4 +126,36 @@ public class LavaJato {
     public void setProprietario(Usuario proprietario) {
         this.proprietario = proprietario;
     }
+
+    public Integer getQuantidadeBoxes() {
+        return quantidadeBoxes;
+    }
+
+    public void setQuantidadeBoxes(Integer quantidadeBoxes) {
+        this.quantidadeBoxes = quantidadeBoxes;
+    }
+
+    public LocalTime getHorarioAbertura() {
+        return horarioAbertura;
+    }
+
+    public void setHorarioAbertura(LocalTime horarioAbertura) {
+        this.horarioAbertura = horarioAbertura;
+    }
+
+    public LocalTime getHorarioFechamento() {
+        return horarioFechamento;
+    }
+
+    public void setHorarioFechamento(LocalTime horarioFechamento) {
+        this.horarioFechamento = horarioFechamento;
+    }
+
+    public Integer getDuracaoSlotMinutos() {
+        return duracaoSlotMinutos;
+    }
+
+    public void setDuracaoSlotMinutos(Integer duracaoSlotMinutos) {
+        this.duracaoSlotMinutos = duracaoSlotMinutos;
+    }
 }
\ No newline at end of file
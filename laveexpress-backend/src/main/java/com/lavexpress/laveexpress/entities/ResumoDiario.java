@@ -0,0 +1,64 @@
+package com.lavexpress.laveexpress.entities;
+
+import com.lavexpress.laveexpress.bases.BaseEntity;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Agregado por lava-jato, dia e tipo de serviço, mantido por ResumoService a cada agendamento
+// gravado ou cancelado. Só é escrito por upsert nativo (ResumoDiarioRepository.acumular).
+@Entity
+@Table(name = "resumo_diario", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_resumo_diario", columnNames = {"lava_jato_id", "dia", "servico_tipo"})
+})
+public class ResumoDiario implements BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resumo_diario_seq")
+    @SequenceGenerator(name = "resumo_diario_seq", sequenceName = "resumo_diario_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "lava_jato_id", nullable = false)
+    private Long lavaJatoId;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(name = "servico_tipo", nullable = false)
+    private String servicoTipo;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(nullable = false)
+    private double receita;
+
+
+    public ResumoDiario() {
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public Long getLavaJatoId() {
+        return lavaJatoId;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public String getServicoTipo() {
+        return servicoTipo;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public double getReceita() {
+        return receita;
+    }
+}
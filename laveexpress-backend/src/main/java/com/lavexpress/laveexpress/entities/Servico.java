@@ -1,13 +1,15 @@
 package com.lavexpress.laveexpress.entities;
 
+import com.lavexpress.laveexpress.bases.BaseEntity;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "servico")
-public class Servico {
+public class Servico implements BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "servico_seq")
+    @SequenceGenerator(name = "servico_seq", sequenceName = "servico_seq", allocationSize = 50)
     private Long id;
 
     private String descricao;
@@ -16,7 +18,7 @@ public class Servico {
 
     private Double valor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lava_jato_id", nullable = false)
     private LavaJato lavaJato;
 
@@ -31,6 +33,7 @@ public class Servico {
         this.lavaJato = lavaJato;
     }
 
+    @Override
     public Long getId() {
         return id;
     }
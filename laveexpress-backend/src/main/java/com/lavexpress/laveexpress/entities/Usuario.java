@@ -1,17 +1,25 @@
 package com.lavexpress.laveexpress.entities;
 
+import com.lavexpress.laveexpress.bases.BaseEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "usuario")
-public class Usuario {
+public class Usuario implements BaseEntity {
+
+    // Papéis: viram ROLE_<papel> no token. Administradores são promovidos direto no banco.
+    public static final String USUARIO = "USUARIO";
+
+    public static final String ADMIN = "ADMIN";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+    @SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
+    private Long id;
 
     private String nome;
     private String email;
@@ -20,14 +28,18 @@ public class Usuario {
     private String telefone;
     private String photoPath;
 
+    @Column(nullable = false, length = 16)
+    private String papel = USUARIO;
 
+
+    @BatchSize(size = 50)
     @OneToMany(mappedBy = "proprietario", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Veiculo> veiculos = new ArrayList<>();
 
     public Usuario() {
     }
 
-    public Usuario(long id, String nome, String email, String senha, String cpf, String telefone, String photoPath, List<Veiculo> veiculos) {
+    public Usuario(Long id, String nome, String email, String senha, String cpf, String telefone, String photoPath, List<Veiculo> veiculos) {
         this.id = id;
         this.nome = nome;
         this.email = email;
@@ -38,11 +50,12 @@ public class Usuario {
         this.veiculos = veiculos;
     }
 
-    public long getId() {
+    @Override
+    public Long getId() {
         return id;
     }
 
-    public void setId(long id) {
+    public void setId(Long id) {
         this.id = id;
     }
 
@@ -95,6 +108,14 @@ public class Usuario {
     }
 
 
+    public String getPapel() {
+        return papel;
+    }
+
+    public void setPapel(String papel) {
+        this.papel = papel;
+    }
+
     public List<Veiculo> getVeiculos() {
         return veiculos;
     }
@@ -1,21 +1,23 @@
 package com.lavexpress.laveexpress.entities;
 
+import com.lavexpress.laveexpress.bases.BaseEntity;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "veiculo")
-public class Veiculo {
+public class Veiculo implements BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "veiculo_seq")
+    @SequenceGenerator(name = "veiculo_seq", sequenceName = "veiculo_seq", allocationSize = 50)
+    private Long id;
 
     private String placa;
     private String modelo;
     private String ano;
     private String marca;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false) // Chave estrangeira para o usuário
     private Usuario proprietario;
 
@@ -23,7 +25,7 @@ public class Veiculo {
     public Veiculo() {
     }
 
-    public Veiculo(long id, String placa, String modelo, String ano, String marca, Usuario proprietario) {
+    public Veiculo(Long id, String placa, String modelo, String ano, String marca, Usuario proprietario) {
         this.id = id;
         this.placa = placa;
         this.modelo = modelo;
@@ -33,11 +35,12 @@ public class Veiculo {
     }
 
     // Getters e setters
-    public long getId() {
+    @Override
+    public Long getId() {
         return id;
     }
 
-    public void setId(long id) {
+    public void setId(Long id) {
         this.id = id;
     }
 
@@ -1,13 +1,42 @@
 package com.lavexpress.laveexpress.mappers;
 
 import com.lavexpress.laveexpress.bases.BaseMapper;
-import com.lavexpress.laveexpress.controllers.AgendamentoController;
+import com.lavexpress.laveexpress.dtos.AgendaItemDto;
 import com.lavexpress.laveexpress.dtos.AgendamentoDto;
+import com.lavexpress.laveexpress.dtos.HistoricoItemDto;
 import com.lavexpress.laveexpress.entities.Agendamento;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.stereotype.Component;
 
 @Component
 @Mapper(componentModel = "spring")
 public abstract class AgendamentoMapper extends BaseMapper<Agendamento, AgendamentoDto> {
+
+    @Override
+    @Mapping(target = "servico", ignore = true)
+    @Mapping(target = "usuario", ignore = true)
+    @Mapping(target = "lavaJato", ignore = true)
+    public abstract Agendamento dtoToEntity(AgendamentoDto dto);
+
+    @Override
+    @Mapping(target = "servicoId", source = "servico.id")
+    @Mapping(target = "usuarioId", source = "usuario.id")
+    @Mapping(target = "lavaJatoId", source = "lavaJato.id")
+    public abstract AgendamentoDto entityToDto(Agendamento agendamento);
+
+    // Usados com os entity graphs Agendamento.agenda e Agendamento.historico
+    @Mapping(target = "servicoId", source = "servico.id")
+    @Mapping(target = "servicoTipo", source = "servico.tipo")
+    @Mapping(target = "usuarioId", source = "usuario.id")
+    @Mapping(target = "usuarioNome", source = "usuario.nome")
+    @Mapping(target = "usuarioTelefone", source = "usuario.telefone")
+    public abstract AgendaItemDto toAgendaItem(Agendamento agendamento);
+
+    @Mapping(target = "servicoId", source = "servico.id")
+    @Mapping(target = "servicoTipo", source = "servico.tipo")
+    @Mapping(target = "lavaJatoId", source = "lavaJato.id")
+    @Mapping(target = "lavaJatoNome", source = "lavaJato.nome")
+    @Mapping(target = "lavaJatoEndereco", source = "lavaJato.endereco")
+    public abstract HistoricoItemDto toHistoricoItem(Agendamento agendamento);
 }
@@ -4,9 +4,18 @@ import com.lavexpress.laveexpress.bases.BaseMapper;
 import com.lavexpress.laveexpress.dtos.LavaJatoDto;
 import com.lavexpress.laveexpress.entities.LavaJato;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.stereotype.Component;
 
 @Component
 @Mapper(componentModel = "spring")
 public abstract class LavaJatoMapper extends BaseMapper<LavaJato, LavaJatoDto> {
+
+    @Override
+    @Mapping(target = "proprietario", ignore = true)
+    public abstract LavaJato dtoToEntity(LavaJatoDto dto);
+
+    @Override
+    @Mapping(target = "proprietarioId", source = "proprietario.id")
+    public abstract LavaJatoDto entityToDto(LavaJato lavaJato);
 }
@@ -4,9 +4,18 @@ import com.lavexpress.laveexpress.bases.BaseMapper;
 import com.lavexpress.laveexpress.dtos.ServicoDto;
 import com.lavexpress.laveexpress.entities.Servico;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.stereotype.Component;
 
 @Component
 @Mapper(componentModel = "spring")
 public abstract class ServicoMapper extends BaseMapper<Servico, ServicoDto> {
+
+    @Override
+    @Mapping(target = "lavaJato", ignore = true)
+    public abstract Servico dtoToEntity(ServicoDto dto);
+
+    @Override
+    @Mapping(target = "lavaJatoId", source = "lavaJato.id")
+    public abstract ServicoDto entityToDto(Servico servico);
 }
@@ -2,11 +2,21 @@ package com.lavexpress.laveexpress.mappers;
 
 import com.lavexpress.laveexpress.bases.BaseMapper;
 import com.lavexpress.laveexpress.dtos.UsuarioDto;
+import com.lavexpress.laveexpress.dtos.UsuarioResumoDto;
 import com.lavexpress.laveexpress.entities.Usuario;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.stereotype.Component;
 
 @Component
 @Mapper(componentModel = "spring")
 public abstract class UsuarioMapper extends BaseMapper<Usuario, UsuarioDto> {
+
+    @Override
+    @Mapping(target = "senha", ignore = true)
+    @Mapping(target = "veiculos", ignore = true)
+    @Mapping(target = "papel", ignore = true)
+    public abstract Usuario dtoToEntity(UsuarioDto dto);
+
+    public abstract UsuarioResumoDto entityToResumo(Usuario usuario);
 }
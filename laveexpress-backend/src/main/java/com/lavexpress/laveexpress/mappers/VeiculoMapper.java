@@ -3,6 +3,19 @@ package com.lavexpress.laveexpress.mappers;
 import com.lavexpress.laveexpress.bases.BaseMapper;
 import com.lavexpress.laveexpress.dtos.VeiculoDto;
 import com.lavexpress.laveexpress.entities.Veiculo;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.springframework.stereotype.Component;
 
+@Component
+@Mapper(componentModel = "spring")
 public abstract class VeiculoMapper extends BaseMapper<Veiculo, VeiculoDto> {
+
+    @Override
+    @Mapping(target = "proprietario", ignore = true)
+    public abstract Veiculo dtoToEntity(VeiculoDto dto);
+
+    @Override
+    @Mapping(target = "usuarioId", source = "proprietario.id")
+    public abstract VeiculoDto entityToDto(Veiculo veiculo);
 }
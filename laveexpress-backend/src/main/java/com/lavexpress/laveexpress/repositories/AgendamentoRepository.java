@@ -1,9 +1,56 @@
 package com.lavexpress.laveexpress.repositories;
 
 import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.config.LeituraReplica;
+import com.lavexpress.laveexpress.dtos.AgendamentoExportadoDto;
+import com.lavexpress.laveexpress.dtos.ReceitaDiariaDto;
+import com.lavexpress.laveexpress.dtos.SlotOcupadoDto;
 import com.lavexpress.laveexpress.entities.Agendamento;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface AgendamentoRepository extends BaseRepository<Agendamento> {
+
+    @Query("select a.box from Agendamento a where a.lavaJato.id = :lavaJatoId and a.horario = :horario")
+    List<Integer> findBoxesOcupados(Long lavaJatoId, LocalDateTime horario);
+
+    @Query("select new com.lavexpress.laveexpress.dtos.SlotOcupadoDto(a.id, a.lavaJato.id, a.horario) " +
+            "from Agendamento a where a.horario >= :inicio")
+    List<SlotOcupadoDto> findSlotsOcupadosDesde(LocalDateTime inicio);
+
+    @Query("select new com.lavexpress.laveexpress.dtos.SlotOcupadoDto(a.id, a.lavaJato.id, a.horario) " +
+            "from Agendamento a where a.lavaJato.id = :lavaJatoId and a.horario >= :inicio")
+    List<SlotOcupadoDto> findSlotsOcupadosDesde(Long lavaJatoId, LocalDateTime inicio);
+
+    @EntityGraph("Agendamento.agenda")
+    @Query("select a from Agendamento a where a.lavaJato.id = :lavaJatoId " +
+            "and a.horario >= :inicio and a.horario < :fim order by a.horario, a.box")
+    List<Agendamento> findAgenda(Long lavaJatoId, LocalDateTime inicio, LocalDateTime fim);
+
+    @EntityGraph("Agendamento.historico")
+    @Query("select a from Agendamento a where a.usuario.id = :usuarioId order by a.horario desc, a.id desc")
+    List<Agendamento> findHistorico(Long usuarioId, Pageable pageable);
+
+    // Exportações: projeção em DTO (nada entra no contexto de persistência) lida em páginas por
+    // keyset, cada uma na sua transação curta. O "horario >= :horario" redundante faz a leitura do
+    // índice começar na página, em vez de reler o histórico anterior a cada chamada.
+    @LeituraReplica
+    @Query("select new com.lavexpress.laveexpress.dtos.AgendamentoExportadoDto(a.id, a.horario, a.box, s.tipo, a.valor, u.id, u.nome) " +
+            "from Agendamento a join a.servico s join a.usuario u " +
+            "where a.lavaJato.id = :lavaJatoId and a.horario >= :horario and a.horario < :fim " +
+            "and (a.horario > :horario or a.box > :box) order by a.horario, a.box")
+    List<AgendamentoExportadoDto> findExportacaoApos(Long lavaJatoId, LocalDateTime horario, int box, LocalDateTime fim, Pageable pagina);
+
+    @LeituraReplica
+    @Query("select new com.lavexpress.laveexpress.dtos.ReceitaDiariaDto(cast(a.horario as LocalDate), s.tipo, count(a), sum(a.valor)) " +
+            "from Agendamento a join a.servico s " +
+            "where a.lavaJato.id = :lavaJatoId and a.horario >= :inicio and a.horario < :fim " +
+            "group by cast(a.horario as LocalDate), s.tipo order by cast(a.horario as LocalDate), s.tipo")
+    List<ReceitaDiariaDto> findReceitaDiaria(Long lavaJatoId, LocalDateTime inicio, LocalDateTime fim);
 }
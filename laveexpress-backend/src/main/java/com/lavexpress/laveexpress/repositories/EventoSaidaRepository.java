@@ -0,0 +1,9 @@
+package com.lavexpress.laveexpress.repositories;
+
+import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.entities.EventoSaida;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventoSaidaRepository extends BaseRepository<EventoSaida> {
+}
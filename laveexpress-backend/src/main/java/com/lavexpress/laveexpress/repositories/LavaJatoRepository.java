@@ -2,8 +2,22 @@ package com.lavexpress.laveexpress.repositories;
 
 import com.lavexpress.laveexpress.bases.BaseRepository;
 import com.lavexpress.laveexpress.entities.LavaJato;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface LavaJatoRepository extends BaseRepository<LavaJato> {
+
+    @Query("select l from LavaJato l where exists " +
+            "(select 1 from Servico s where s.lavaJato = l and lower(s.tipo) = :tipo) order by l.nome")
+    List<LavaJato> findOferecemTipo(String tipo);
+
+    List<LavaJato> findByCnpjIn(Collection<String> cnpjs);
+
+    List<LavaJato> findByProprietarioIdIn(Collection<Long> proprietarioIds);
+
+    boolean existsByIdAndProprietarioId(Long id, Long proprietarioId);
 }
@@ -0,0 +1,58 @@
+package com.lavexpress.laveexpress.repositories;
+
+import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.dtos.PopularidadeDto;
+import com.lavexpress.laveexpress.entities.ResumoDiario;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumoDiarioRepository extends BaseRepository<ResumoDiario> {
+
+    // Incremento atômico no banco: duas reservas no mesmo balde não perdem atualização
+    @Modifying
+    @Query(value = "insert into resumo_diario (id, lava_jato_id, dia, servico_tipo, quantidade, receita) " +
+            "values (nextval('resumo_diario_seq'), :lavaJatoId, :dia, :servicoTipo, :quantidade, :receita) " +
+            "on conflict (lava_jato_id, dia, servico_tipo) do update set " +
+            "quantidade = resumo_diario.quantidade + excluded.quantidade, receita = resumo_diario.receita + excluded.receita",
+            nativeQuery = true)
+    void acumular(Long lavaJatoId, LocalDate dia, String servicoTipo, long quantidade, double receita);
+
+    @Query("select r from ResumoDiario r where r.lavaJatoId = :lavaJatoId and r.dia between :inicio and :fim order by r.dia")
+    List<ResumoDiario> findPeriodo(Long lavaJatoId, LocalDate inicio, LocalDate fim);
+
+    @Query("select new com.lavexpress.laveexpress.dtos.PopularidadeDto(r.lavaJatoId, r.servicoTipo, sum(r.quantidade)) " +
+            "from ResumoDiario r where r.dia >= :desde group by r.lavaJatoId, r.servicoTipo")
+    List<PopularidadeDto> findPopularidadeDesde(LocalDate desde);
+
+    @Query(value = "select count(*) from resumo_diario", nativeQuery = true)
+    long contar();
+
+    // Só os dias que ainda estão em agendamento: meses arquivados (ManutencaoParticoes) ficam.
+    // O limite é o início da partição mais antiga ainda ligada, não o min(horario): com a tabela
+    // (ou o começo dela) vazia o min seria nulo ou tardio e deixaria baldes velhos para trás
+    @Modifying
+    @Query(value = "delete from resumo_diario where dia >= coalesce(" +
+            "(select min(to_date(substring(c.relname from 14), 'YYYY_MM')) from pg_inherits i " +
+            "join pg_class c on c.oid = i.inhrelid " +
+            "where i.inhparent = cast('agendamento' as regclass) and c.relname ~ '^agendamento_p[0-9]{4}_[0-9]{2}$'), " +
+            "(select cast(min(horario) as date) from agendamento), " +
+            "date '-infinity')", nativeQuery = true)
+    void apagarCobertosPorAgendamento();
+
+    // Reconstrução completa a partir de agendamento (carga inicial ou correção). Uma reserva que
+    // gravou o balde depois do delete já está na contagem: o valor recalculado prevalece
+    @Modifying
+    @Query(value = "insert into resumo_diario (id, lava_jato_id, dia, servico_tipo, quantidade, receita) " +
+            "select nextval('resumo_diario_seq'), a.lava_jato_id, cast(a.horario as date), coalesce(a.tipo, ''), " +
+            "count(*), coalesce(sum(a.valor), 0) from agendamento a " +
+            "group by a.lava_jato_id, cast(a.horario as date), coalesce(a.tipo, '') " +
+            "on conflict (lava_jato_id, dia, servico_tipo) do update set " +
+            "quantidade = excluded.quantidade, receita = excluded.receita",
+            nativeQuery = true)
+    int recalcular();
+}
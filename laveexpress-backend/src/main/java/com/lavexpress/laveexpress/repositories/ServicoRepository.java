@@ -1,9 +1,29 @@
 package com.lavexpress.laveexpress.repositories;
 
 import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.dtos.TipoServicoDto;
 import com.lavexpress.laveexpress.entities.Servico;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ServicoRepository extends BaseRepository<Servico> {
+
+    @Query("select distinct new com.lavexpress.laveexpress.dtos.TipoServicoDto(s.lavaJato.id, s.tipo) from Servico s")
+    List<TipoServicoDto> findTipos();
+
+    @Query("select s from Servico s where s.lavaJato.id = :lavaJatoId order by s.tipo, s.id")
+    List<Servico> findDoLavaJato(Long lavaJatoId);
+
+    @Query("select distinct s.tipo from Servico s where s.lavaJato.id = :lavaJatoId")
+    List<String> findTiposDoLavaJato(Long lavaJatoId);
+
+    @Query("select s from Servico s where s.lavaJato.id in :lavaJatoIds")
+    List<Servico> findDosLavaJatos(Collection<Long> lavaJatoIds);
+
+    @Query("select count(s) from Servico s where s.id in :ids and s.lavaJato.id = :lavaJatoId")
+    long countDoLavaJato(Collection<Long> ids, Long lavaJatoId);
 }
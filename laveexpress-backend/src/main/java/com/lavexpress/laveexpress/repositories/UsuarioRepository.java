@@ -1,10 +1,34 @@
 package com.lavexpress.laveexpress.repositories;
 
+import com.lavexpress.laveexpress.bases.BaseRepository;
 import com.lavexpress.laveexpress.entities.Usuario;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+@Repository
+public interface UsuarioRepository extends BaseRepository<Usuario> {
     Optional<Usuario> findByEmail(String email);
+
+    // emails já em minúsculas; usa idx_usuario_email_minusculo (V5)
+    @Query("select u from Usuario u where lower(u.email) in :emails")
+    List<Usuario> findByEmailMinusculoIn(Collection<String> emails);
+
+    @Query("select u from Usuario u left join fetch u.veiculos where u.id = :id")
+    Optional<Usuario> findPerfil(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.senha = :senha where u.id = :id")
+    int atualizarSenha(Long id, String senha);
+
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.photoPath = :photoPath where u.id = :id")
+    int atualizarFoto(Long id, String photoPath);
 }
@@ -1,9 +1,21 @@
 package com.lavexpress.laveexpress.repositories;
 
 import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.dtos.MarcaModeloDto;
 import com.lavexpress.laveexpress.entities.Veiculo;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface VeiculoRepository extends BaseRepository<Veiculo> {
+
+    @Query("select new com.lavexpress.laveexpress.dtos.MarcaModeloDto(v.marca, v.modelo, count(v)) " +
+            "from Veiculo v group by v.marca, v.modelo")
+    List<MarcaModeloDto> findMarcasModelos();
+
+    @Query("select count(v) from Veiculo v where v.id in :ids and v.proprietario.id = :usuarioId")
+    long countDoUsuario(Collection<Long> ids, Long usuarioId);
 }
@@ -0,0 +1,119 @@
+package com.lavexpress.laveexpress.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Balde de fichas por chave no formato GCRA: o estado é um único long (o instante teórico da
+// próxima chegada), atualizado por CAS, sem lock. Uma chave parada há mais que a rajada
+// equivale a um balde cheio, então o Caffeine pode descartá-la sem mudar o resultado.
+@Component
+public class LimitadorTaxa {
+
+    public enum Dimensao { IP, EMAIL, USUARIO }
+
+    private final boolean habilitado;
+
+    private final List<RegraCompilada> regras;
+
+    private final Cache<String, AtomicLong> baldes;
+
+    public LimitadorTaxa(LimiteTaxaProperties properties) {
+        Map<String, LimiteTaxaProperties.Regra> configuradas = properties.regras() != null ? properties.regras() : Map.of();
+        this.habilitado = properties.habilitado();
+        this.regras = configuradas.entrySet().stream()
+                .map(entrada -> RegraCompilada.de(entrada.getKey(), entrada.getValue()))
+                .toList();
+        long maiorTolerancia = regras.stream().mapToLong(RegraCompilada::tolerancia).max().orElse(1);
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(properties.tamanhoMaximo())
+                .expireAfterAccess(Duration.ofNanos(maiorTolerancia))
+                .build();
+    }
+
+    // Consome uma ficha de cada regra da rota para a dimensão; devolve a espera até a próxima
+    // requisição aceita, ou zero se foi aceita
+    public Duration consumir(HttpServletRequest request, Dimensao dimensao, String valor) {
+        if (!habilitado || valor == null || valor.isBlank()) {
+            return Duration.ZERO;
+        }
+        String chave = dimensao == Dimensao.EMAIL ? valor.trim().toLowerCase(Locale.ROOT) : valor;
+        PathContainer caminho = null;
+        long espera = 0;
+        for (RegraCompilada regra : regras) {
+            if (regra.dimensao() != dimensao || (regra.metodo() != null && !regra.metodo().equalsIgnoreCase(request.getMethod()))) {
+                continue;
+            }
+            if (caminho == null) {
+                caminho = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+            }
+            if (regra.corresponde(caminho)) {
+                AtomicLong balde = baldes.get(regra.nome() + '|' + chave, k -> new AtomicLong(Long.MIN_VALUE));
+                espera = Math.max(espera, consumir(balde, System.nanoTime(), regra.intervalo(), regra.tolerancia()));
+            }
+        }
+        return Duration.ofNanos(espera);
+    }
+
+    // Para quem só conhece o valor depois de ler o corpo (login em JSON)
+    public void verificar(HttpServletRequest request, Dimensao dimensao, String valor) {
+        Duration espera = consumir(request, dimensao, valor);
+        if (!espera.isZero()) {
+            throw new LimiteExcedidoException(espera);
+        }
+    }
+
+    public long chaves() {
+        return baldes.estimatedSize();
+    }
+
+    private static long consumir(AtomicLong balde, long agora, long intervalo, long tolerancia) {
+        while (true) {
+            long atual = balde.get();
+            long proxima = Math.max(atual, agora) + intervalo;
+            long espera = proxima - agora - tolerancia;
+            if (espera > 0) {
+                return espera;
+            }
+            if (balde.compareAndSet(atual, proxima)) {
+                return 0;
+            }
+        }
+    }
+
+    // intervalo: tempo entre fichas; tolerancia: rajada * intervalo
+    private record RegraCompilada(String nome, List<PathPattern> rotas, String metodo, Dimensao dimensao,
+                                  long intervalo, long tolerancia) {
+
+        static RegraCompilada de(String nome, LimiteTaxaProperties.Regra regra) {
+            if (regra.rotas() == null || regra.rotas().isEmpty() || regra.por() == null
+                    || regra.requisicoes() <= 0 || regra.periodo() == null || regra.rajada() <= 0) {
+                throw new IllegalArgumentException("lavexpress.limite-taxa.regras." + nome
+                        + ": rotas, por, requisicoes, periodo e rajada são obrigatórios");
+            }
+            long intervalo = Math.max(1, regra.periodo().toNanos() / regra.requisicoes());
+            return new RegraCompilada(nome,
+                    regra.rotas().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                    regra.metodo(), regra.por(), intervalo, intervalo * regra.rajada());
+        }
+
+        boolean corresponde(PathContainer caminho) {
+            for (PathPattern rota : rotas) {
+                if (rota.matches(caminho)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
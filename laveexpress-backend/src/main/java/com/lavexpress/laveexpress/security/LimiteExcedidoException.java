@@ -0,0 +1,29 @@
+package com.lavexpress.laveexpress.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+// 429 com Retry-After em segundos (arredondado para cima)
+public class LimiteExcedidoException extends ResponseStatusException {
+
+    private final long segundos;
+
+    public LimiteExcedidoException(Duration espera) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Muitas requisições, tente novamente em instantes.");
+        this.segundos = segundos(espera);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        return headers;
+    }
+
+    static long segundos(Duration espera) {
+        return Math.max(1, (espera.toNanos() + 999_999_999L) / 1_000_000_000L);
+    }
+}
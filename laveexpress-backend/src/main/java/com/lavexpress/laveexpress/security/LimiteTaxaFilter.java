@@ -0,0 +1,50 @@
+package com.lavexpress.laveexpress.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Logo depois da autenticação por token e antes de qualquer controller (e do banco). O e-mail
+// só é conhecido aqui quando vem como parâmetro; no login em JSON o controller verifica.
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private final LimitadorTaxa limitadorTaxa;
+
+    public LimiteTaxaFilter(LimitadorTaxa limitadorTaxa) {
+        this.limitadorTaxa = limitadorTaxa;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration espera = limitadorTaxa.consumir(request, LimitadorTaxa.Dimensao.IP, request.getRemoteAddr());
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (espera.isZero() && autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            espera = limitadorTaxa.consumir(request, LimitadorTaxa.Dimensao.USUARIO, String.valueOf(usuario.id()));
+        }
+        // getParameter num multipart faria o parse do upload inteiro aqui
+        if (espera.isZero() && !isMultipart(request)) {
+            espera = limitadorTaxa.consumir(request, LimitadorTaxa.Dimensao.EMAIL, request.getParameter("email"));
+        }
+        if (!espera.isZero()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(LimiteExcedidoException.segundos(espera)));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Muitas requisições, tente novamente em instantes.");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        return request.getContentType() != null && request.getContentType().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+}
@@ -0,0 +1,24 @@
+package com.lavexpress.laveexpress.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// regras: nome -> rotas (padrões de caminho), método opcional, dimensão contada (ip, email ou
+// usuario), "requisicoes" por "periodo" e rajada aceita de uma vez.
+@ConfigurationProperties(prefix = "lavexpress.limite-taxa")
+public record LimiteTaxaProperties(@DefaultValue("true") boolean habilitado,
+                                   @DefaultValue("1000000") long tamanhoMaximo,
+                                   Map<String, Regra> regras) {
+
+    public record Regra(List<String> rotas,
+                        String metodo,
+                        LimitadorTaxa.Dimensao por,
+                        int requisicoes,
+                        Duration periodo,
+                        @DefaultValue("1") int rajada) {
+    }
+}
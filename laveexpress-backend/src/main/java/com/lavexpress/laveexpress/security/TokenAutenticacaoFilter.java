@@ -0,0 +1,37 @@
+package com.lavexpress.laveexpress.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class TokenAutenticacaoFilter extends OncePerRequestFilter {
+
+    private static final String PREFIXO = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAutenticacaoFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (autorizacao != null && autorizacao.startsWith(PREFIXO)) {
+            tokenService.verificar(autorizacao.substring(PREFIXO.length()).trim()).ifPresent(usuario -> {
+                var autenticacao = new UsernamePasswordAuthenticationToken(usuario, null, AuthorityUtils.createAuthorityList("ROLE_" + usuario.papel()));
+                SecurityContextHolder.getContext().setAuthentication(autenticacao);
+            });
+        }
+        filterChain.doFilter(request, response);
+    }
+}
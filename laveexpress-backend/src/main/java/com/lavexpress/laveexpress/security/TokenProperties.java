@@ -0,0 +1,16 @@
+package com.lavexpress.laveexpress.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// chaves: kid -> segredo em Base64 (mínimo 32 bytes). Para rotacionar, adiciona-se a chave nova,
+// troca-se chave-ativa e, depois de "validade", remove-se a antiga.
+@ConfigurationProperties(prefix = "lavexpress.token")
+public record TokenProperties(String chaveAtiva,
+                              Map<String, String> chaves,
+                              @DefaultValue("2h") Duration validade,
+                              @DefaultValue("100000") long tamanhoCache) {
+}
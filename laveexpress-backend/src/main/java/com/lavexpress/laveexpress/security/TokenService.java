@@ -0,0 +1,153 @@
+package com.lavexpress.laveexpress.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lavexpress.laveexpress.dtos.TokenDto;
+import com.lavexpress.laveexpress.entities.Usuario;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Tokens no formato JWT (HS256, com "kid" no cabeçalho). Nada fica guardado no servidor:
+// qualquer instância que tenha as mesmas chaves valida o token sozinha.
+@Service
+public class TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, SecretKeySpec> chaves = new HashMap<>();
+
+    private final Map<String, String> cabecalhos = new HashMap<>();
+
+    private final String chaveAtiva;
+
+    private final TokenProperties properties;
+
+    // Token -> usuário já verificado; evita HMAC e parse de JSON a cada request
+    private final Cache<String, TokenVerificado> verificados;
+
+    public TokenService(ObjectMapper objectMapper, TokenProperties properties, Environment environment) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        Map<String, String> configuradas = new HashMap<>(properties.chaves() != null ? properties.chaves() : Map.of());
+        configuradas.values().removeIf(segredo -> segredo == null || segredo.isBlank());
+        if (configuradas.isEmpty()) {
+            // Chave aleatória só serve para desenvolvimento; em produção derrubaria todas as sessões a cada deploy
+            if (!environment.acceptsProfiles(Profiles.of("dev"))) {
+                throw new IllegalStateException("Nenhuma chave em lavexpress.token.chaves (LAVEXPRESS_TOKEN_CHAVE_K1)");
+            }
+            byte[] segredo = new byte[32];
+            new SecureRandom().nextBytes(segredo);
+            configuradas = Map.of("local", Base64.getEncoder().encodeToString(segredo));
+            logger.warn("Nenhuma chave em lavexpress.token.chaves; usando chave aleatória (tokens não valem entre instâncias nem após reinício)");
+        }
+        configuradas.forEach((kid, segredo) -> {
+            byte[] bytes = Base64.getDecoder().decode(segredo);
+            if (bytes.length < 32) {
+                throw new IllegalStateException("Chave de token '" + kid + "' precisa de pelo menos 32 bytes");
+            }
+            chaves.put(kid, new SecretKeySpec(bytes, ALGORITMO));
+            cabecalhos.put(kid, BASE64.encodeToString(
+                    ("{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + kid + "\"}").getBytes(StandardCharsets.UTF_8)));
+        });
+        this.chaveAtiva = properties.chaveAtiva() != null && chaves.containsKey(properties.chaveAtiva())
+                ? properties.chaveAtiva()
+                : chaves.keySet().iterator().next();
+        this.verificados = Caffeine.newBuilder()
+                .maximumSize(properties.tamanhoCache())
+                .expireAfterWrite(properties.validade())
+                .build();
+    }
+
+    public TokenDto emitir(Usuario usuario) {
+        Instant agora = Instant.now();
+        Instant expiraEm = agora.plus(properties.validade());
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", String.valueOf(usuario.getId()));
+        payload.put("email", usuario.getEmail());
+        payload.put("papel", usuario.getPapel());
+        payload.put("iat", agora.getEpochSecond());
+        payload.put("exp", expiraEm.getEpochSecond());
+        try {
+            String conteudo = cabecalhos.get(chaveAtiva) + "." + BASE64.encodeToString(objectMapper.writeValueAsBytes(payload));
+            String token = conteudo + "." + BASE64.encodeToString(assinar(chaveAtiva, conteudo));
+            return new TokenDto(token, "Bearer", expiraEm);
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao emitir token", e);
+        }
+    }
+
+    public Optional<UsuarioAutenticado> verificar(String token) {
+        long agora = Instant.now().getEpochSecond();
+        TokenVerificado verificado = verificados.getIfPresent(token);
+        if (verificado == null) {
+            verificado = validar(token);
+            if (verificado == null) {
+                return Optional.empty();
+            }
+            verificados.put(token, verificado);
+        }
+        return verificado.expiraEm() > agora ? Optional.of(verificado.usuario()) : Optional.empty();
+    }
+
+    private TokenVerificado validar(String token) {
+        int primeiroPonto = token.indexOf('.');
+        int ultimoPonto = token.lastIndexOf('.');
+        if (primeiroPonto <= 0 || ultimoPonto <= primeiroPonto) {
+            return null;
+        }
+        try {
+            JsonNode cabecalho = objectMapper.readTree(BASE64_DECODER.decode(token.substring(0, primeiroPonto)));
+            String kid = cabecalho.path("kid").asText();
+            if (!chaves.containsKey(kid) || !"HS256".equals(cabecalho.path("alg").asText())) {
+                return null;
+            }
+            byte[] esperada = assinar(kid, token.substring(0, ultimoPonto));
+            byte[] recebida = BASE64_DECODER.decode(token.substring(ultimoPonto + 1));
+            if (!MessageDigest.isEqual(esperada, recebida)) {
+                return null;
+            }
+            JsonNode payload = objectMapper.readTree(BASE64_DECODER.decode(token.substring(primeiroPonto + 1, ultimoPonto)));
+            return new TokenVerificado(
+                    new UsuarioAutenticado(Long.valueOf(payload.path("sub").asText()), payload.path("email").asText(null),
+                            payload.path("papel").asText(Usuario.USUARIO)),
+                    payload.path("exp").asLong());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private byte[] assinar(String kid, String conteudo) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(ALGORITMO);
+        mac.init(chaves.get(kid));
+        return mac.doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private record TokenVerificado(UsuarioAutenticado usuario, long expiraEm) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.lavexpress.laveexpress.security;
+
+import com.lavexpress.laveexpress.entities.Usuario;
+
+public record UsuarioAutenticado(Long id, String email, String papel) {
+
+    public boolean admin() {
+        return Usuario.ADMIN.equals(papel);
+    }
+
+    // O próprio usuário ou um administrador
+    public boolean podeAcessar(Long usuarioId) {
+        return id.equals(usuarioId) || admin();
+    }
+}
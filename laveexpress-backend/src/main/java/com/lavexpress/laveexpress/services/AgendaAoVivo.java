@@ -0,0 +1,180 @@
+package com.lavexpress.laveexpress.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lavexpress.laveexpress.dtos.AgendaItemDto;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Agenda ao vivo (SSE) por lava-jato. Cada inscrito é só um SseEmitter em modo assíncrono:
+// a thread do Tomcat volta para o pool logo após a inscrição, e milhares de conexões ociosas
+// custam um objeto cada. Os envios saem de poucas faixas de thread única (lava-jato % faixas),
+// o que mantém a ordem dos eventos de um mesmo lava-jato sem prender quem fez a reserva.
+// Reservas feitas em outras instâncias chegam por LISTEN/NOTIFY (NotificacoesBanco, ver AgendamentoService).
+// Sem replay: ao reconectar o cliente recarrega GET /api/agendamentos/agenda.
+@Component
+public class AgendaAoVivo {
+
+    public static final String CRIADO = "criado";
+
+    public static final String ALTERADO = "alterado";
+
+    public static final String CANCELADO = "cancelado";
+
+    private static final int FAIXAS = 4;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final Map<Long, Set<SseEmitter>> inscritos = new ConcurrentHashMap<>();
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private final ThreadPoolExecutor[] faixas = new ThreadPoolExecutor[FAIXAS];
+
+    private final ObjectMapper objectMapper;
+
+    private final int maximoConexoes;
+
+    private final long timeoutMs;
+
+    private final long reconexaoMs;
+
+    public AgendaAoVivo(ObjectMapper objectMapper,
+                        @Value("${lavexpress.agenda-ao-vivo.maximo-conexoes:5000}") int maximoConexoes,
+                        @Value("${lavexpress.agenda-ao-vivo.timeout:30m}") Duration timeout,
+                        @Value("${lavexpress.agenda-ao-vivo.reconexao:5s}") Duration reconexao,
+                        @Value("${lavexpress.agenda-ao-vivo.fila:1000}") int capacidadeFila) {
+        this.objectMapper = objectMapper;
+        this.maximoConexoes = maximoConexoes;
+        this.timeoutMs = timeout.toMillis();
+        this.reconexaoMs = reconexao.toMillis();
+        for (int i = 0; i < FAIXAS; i++) {
+            String nome = "agenda-ao-vivo-" + (i + 1);
+            faixas[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacidadeFila),
+                    tarefa -> {
+                        Thread thread = new Thread(tarefa, nome);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    public SseEmitter inscrever(Long lavaJatoId) {
+        if (total.incrementAndGet() > maximoConexoes) {
+            total.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Limite de conexões da agenda ao vivo atingido.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // compute/computeIfPresent: a inclusão não cai num conjunto que remover() acabou de descartar
+        inscritos.compute(lavaJatoId, (id, doLavaJato) -> {
+            Set<SseEmitter> conjunto = doLavaJato != null ? doLavaJato : ConcurrentHashMap.newKeySet();
+            conjunto.add(emitter);
+            return conjunto;
+        });
+        Runnable remover = () -> remover(lavaJatoId, emitter);
+        emitter.onCompletion(remover);
+        emitter.onTimeout(remover);
+        emitter.onError(erro -> remover.run());
+        try {
+            // Abre a resposta já com os headers, e diz ao EventSource quanto esperar para reconectar
+            emitter.send(SseEmitter.event().comment("conectado").reconnectTime(reconexaoMs));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    // Chamado depois do commit; o JSON é montado uma vez para todos os inscritos
+    public void publicar(Long lavaJatoId, String tipo, AgendaItemDto item) {
+        Set<SseEmitter> doLavaJato = inscritos.get(lavaJatoId);
+        if (doLavaJato == null || doLavaJato.isEmpty()) {
+            return;
+        }
+        String dados;
+        try {
+            dados = objectMapper.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento de agenda não serializável", e);
+        }
+        long id = sequencia.incrementAndGet();
+        executar(lavaJatoId, () -> {
+            for (SseEmitter emitter : doLavaJato) {
+                enviar(lavaJatoId, emitter, SseEmitter.event().id(Long.toString(id)).name(tipo).data(dados, MediaType.APPLICATION_JSON));
+            }
+        });
+    }
+
+    // Comentário periódico: evita que proxies derrubem a conexão ociosa e revela clientes que já foram embora
+    @Scheduled(fixedDelayString = "${lavexpress.agenda-ao-vivo.heartbeat-ms:25000}")
+    public void heartbeat() {
+        inscritos.forEach((lavaJatoId, doLavaJato) -> executar(lavaJatoId, () -> {
+            for (SseEmitter emitter : doLavaJato) {
+                enviar(lavaJatoId, emitter, SseEmitter.event().comment(""));
+            }
+        }));
+    }
+
+    public int inscritos() {
+        return total.get();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        for (ThreadPoolExecutor faixa : faixas) {
+            faixa.shutdownNow();
+        }
+        inscritos.values().forEach(doLavaJato -> doLavaJato.forEach(SseEmitter::complete));
+    }
+
+    private void executar(Long lavaJatoId, Runnable envio) {
+        try {
+            faixas[(int) Math.floorMod(lavaJatoId, (long) FAIXAS)].execute(envio);
+        } catch (RejectedExecutionException e) {
+            // Clientes lentos demais; quem perder o evento resincroniza ao reconectar
+            logger.warn("Fila da agenda ao vivo cheia; evento do lava-jato " + lavaJatoId + " descartado");
+        }
+    }
+
+    private void enviar(Long lavaJatoId, SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            // Conexão caída ou emitter já encerrado; nem sempre o container avisa, então sai da lista aqui
+            remover(lavaJatoId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remover(Long lavaJatoId, SseEmitter emitter) {
+        inscritos.computeIfPresent(lavaJatoId, (id, doLavaJato) -> {
+            if (doLavaJato.remove(emitter)) {
+                total.decrementAndGet();
+            }
+            return doLavaJato.isEmpty() ? null : doLavaJato;
+        });
+    }
+}
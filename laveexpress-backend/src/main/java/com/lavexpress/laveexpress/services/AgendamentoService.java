@@ -1,4 +1,286 @@
 package com.lavexpress.laveexpress.services;
 
-public class AgendamentoService {
+import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.LeituraReplica;
+import com.lavexpress.laveexpress.dtos.AgendaEventoDto;
+import com.lavexpress.laveexpress.dtos.AgendaItemDto;
+import com.lavexpress.laveexpress.dtos.HistoricoItemDto;
+import com.lavexpress.laveexpress.dtos.HorarioDisponivelDto;
+import com.lavexpress.laveexpress.dtos.SlotOcupadoDto;
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.mappers.AgendamentoMapper;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import com.lavexpress.laveexpress.security.UsuarioAutenticado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class AgendamentoService extends BaseService<Agendamento> {
+
+    // Potência de 2: o índice da faixa sai de uma máscara sobre o hash de (lava-jato, dia)
+    private static final int FAIXAS_DE_LOCK = 256;
+
+    private static final int MAX_TENTATIVAS = 3;
+
+    // LISTEN/NOTIFY: mudanças na agenda feitas por outras instâncias
+    private static final String CANAL_AGENDA = "agenda";
+
+    private final AgendamentoRepository agendamentoRepository;
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final ServicoRepository servicoRepository;
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final AgendamentoMapper mapper;
+
+    private final DisponibilidadeIndex disponibilidadeIndex;
+
+    private final ResumoService resumoService;
+
+    private final EventoSaidaService eventoSaidaService;
+
+    private final AgendaAoVivo agendaAoVivo;
+
+    private final NotificacoesBanco notificacoesBanco;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock[] locks = new ReentrantLock[FAIXAS_DE_LOCK];
+
+    private final long lockTimeoutMs;
+
+    private final int mesesAFrente;
+
+    public AgendamentoService(AgendamentoRepository agendamentoRepository,
+                              LavaJatoRepository lavaJatoRepository,
+                              ServicoRepository servicoRepository,
+                              UsuarioRepository usuarioRepository,
+                              AgendamentoMapper mapper,
+                              DisponibilidadeIndex disponibilidadeIndex,
+                              ResumoService resumoService,
+                              EventoSaidaService eventoSaidaService,
+                              AgendaAoVivo agendaAoVivo,
+                              NotificacoesBanco notificacoesBanco,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${lavexpress.agendamento.lock-timeout-ms:500}") long lockTimeoutMs,
+                              @Value("${lavexpress.particoes.meses-a-frente:12}") int mesesAFrente) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.servicoRepository = servicoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.mapper = mapper;
+        this.disponibilidadeIndex = disponibilidadeIndex;
+        this.resumoService = resumoService;
+        this.eventoSaidaService = eventoSaidaService;
+        this.agendaAoVivo = agendaAoVivo;
+        this.notificacoesBanco = notificacoesBanco;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.mesesAFrente = mesesAFrente;
+        for (int i = 0; i < FAIXAS_DE_LOCK; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        notificacoesBanco.ouvir(CANAL_AGENDA, AgendaEventoDto.class, this::aplicarRemoto);
+    }
+
+    @Override
+    public BaseRepository<Agendamento> getRepository() {
+        return agendamentoRepository;
+    }
+
+    // Só disputam o mesmo lock as reservas do mesmo lava-jato no mesmo dia; a constraint
+    // uk_agendamento_slot continua sendo a garantia final quando há mais de uma instância.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Agendamento agendar(Long lavaJatoId, Long servicoId, Long usuarioId, LocalDateTime horario) {
+        LavaJato lavaJato = lavaJatoRepository.findById(lavaJatoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lava-jato não encontrado."));
+        Servico servico = servicoRepository.findById(servicoId)
+                .filter(s -> s.getLavaJato().getId().equals(lavaJatoId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado para este lava-jato."));
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado."));
+
+        GradeHorarios grade = GradeHorarios.de(lavaJato);
+        if (horario.isBefore(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Horário já passou.");
+        }
+        // Além disso ainda não existe partição de agendamento para o mês (ManutencaoParticoes)
+        if (horario.isAfter(LocalDateTime.now().plusMonths(mesesAFrente))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Agendamentos só podem ser feitos com até " + mesesAFrente + " meses de antecedência.");
+        }
+        if (grade.indiceSlot(horario.toLocalTime()) < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Horário fora da grade do lava-jato.");
+        }
+
+        ReentrantLock lock = lockPara(lavaJatoId, horario.toLocalDate());
+        adquirir(lock);
+        try {
+            for (int tentativa = 1; tentativa <= MAX_TENTATIVAS; tentativa++) {
+                try {
+                    return transactionTemplate.execute(status -> reservar(lavaJato, servico, usuario, horario, grade));
+                } catch (DataIntegrityViolationException e) {
+                    // Outra instância ocupou o mesmo box entre a leitura e o insert
+                    logger.debug("Conflito de box em " + horario + " (tentativa " + tentativa + ")");
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Horário indisponível, tente novamente.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<HorarioDisponivelDto> disponiveis(Long lavaJatoId, LocalDate dia) {
+        return disponibilidadeIndex.disponiveis(lavaJatoId, dia);
+    }
+
+    @LeituraReplica
+    public List<AgendaItemDto> agenda(Long lavaJatoId, LocalDate dia) {
+        return agendamentoRepository.findAgenda(lavaJatoId, dia.atStartOfDay(), dia.plusDays(1).atStartOfDay())
+                .stream()
+                .map(mapper::toAgendaItem)
+                .toList();
+    }
+
+    @LeituraReplica
+    public List<HistoricoItemDto> historico(Long usuarioId, int pagina, int tamanho) {
+        return agendamentoRepository.findHistorico(usuarioId, PageRequest.of(Math.max(pagina, 0), limitar(tamanho)))
+                .stream()
+                .map(mapper::toHistoricoItem)
+                .toList();
+    }
+
+    // Pode cancelar o cliente do agendamento, o proprietário do lava-jato ou um administrador
+    public void cancelar(Long id, UsuarioAutenticado autenticado) {
+        Agendamento agendamento = agendamentoRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Agendamento não encontrado."));
+        if (autenticado == null || !autenticado.podeAcessar(agendamento.getUsuario().getId())
+                && !lavaJatoRepository.existsByIdAndProprietarioId(agendamento.getLavaJato().getId(), autenticado.id())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sem permissão para cancelar este agendamento.");
+        }
+        delete(agendamento);
+    }
+
+    private Agendamento reservar(LavaJato lavaJato, Servico servico, Usuario usuario, LocalDateTime horario, GradeHorarios grade) {
+        List<Integer> ocupados = agendamentoRepository.findBoxesOcupados(lavaJato.getId(), horario);
+        int box = primeiroBoxLivre(ocupados, grade.boxes());
+        if (box < 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Não há boxes livres neste horário.");
+        }
+
+        Agendamento agendamento = new Agendamento(horario, servico.getValor(), servico.getTipo(), servico, usuario, lavaJato);
+        agendamento.setBox(box);
+        Agendamento salvo = agendamentoRepository.saveAndFlush(agendamento);
+        aposSalvar(salvo);
+        return salvo;
+    }
+
+    // Agendamento só nasce por agendar() (lock, grade, box livre) e só sai por delete(): uma
+    // alteração pelos caminhos genéricos deixaria resumo_diario e o outbox sem o valor anterior
+    @Override
+    public void save(Agendamento agendamento) {
+        throw new UnsupportedOperationException("Agendamentos são criados por agendar()");
+    }
+
+    @Override
+    public Agendamento saveWithReturn(Agendamento agendamento) {
+        throw new UnsupportedOperationException("Agendamentos são criados por agendar()");
+    }
+
+    @Override
+    public List<Agendamento> saveAll(Collection<Agendamento> agendamentos) {
+        throw new UnsupportedOperationException("Agendamentos são criados por agendar()");
+    }
+
+    // Só chamado para agendamentos novos (ver acima): resumo e outbox na mesma transação do insert.
+    // O item da agenda é montado ainda na transação (usuário e serviço são lazy); o aviso às
+    // outras instâncias sai com o commit
+    @Override
+    protected void aposSalvar(Agendamento agendamento) {
+        resumoService.acumular(agendamento, 1);
+        eventoSaidaService.registrar(EventoSaidaService.AGENDAMENTO_CRIADO, agendamento);
+        var slot = new SlotOcupadoDto(agendamento.getId(), agendamento.getLavaJato().getId(), agendamento.getHorario());
+        var agendaEvento = new AgendaEventoDto(AgendaAoVivo.CRIADO, slot.lavaJatoId(), mapper.toAgendaItem(agendamento));
+        notificacoesBanco.publicar(CANAL_AGENDA, agendaEvento);
+        aposCommit(() -> {
+            disponibilidadeIndex.registrar(slot);
+            agendaAoVivo.publicar(agendaEvento.lavaJatoId(), AgendaAoVivo.CRIADO, agendaEvento.item());
+        });
+    }
+
+    // Qualquer exclusão (cancelar() ou delete() direto) desconta do resumo e gera o evento
+    @Override
+    protected void aposExcluir(Agendamento agendamento) {
+        resumoService.acumular(agendamento, -1);
+        eventoSaidaService.registrar(EventoSaidaService.AGENDAMENTO_CANCELADO, agendamento);
+        Long id = agendamento.getId();
+        var agendaEvento = new AgendaEventoDto(AgendaAoVivo.CANCELADO, agendamento.getLavaJato().getId(), mapper.toAgendaItem(agendamento));
+        notificacoesBanco.publicar(CANAL_AGENDA, agendaEvento);
+        aposCommit(() -> {
+            disponibilidadeIndex.remover(id);
+            agendaAoVivo.publicar(agendaEvento.lavaJatoId(), AgendaAoVivo.CANCELADO, agendaEvento.item());
+        });
+    }
+
+    // Reserva feita ou cancelada em outra instância: o índice de disponibilidade daqui também muda
+    private void aplicarRemoto(AgendaEventoDto agendaEvento) {
+        AgendaItemDto item = agendaEvento.item();
+        if (AgendaAoVivo.CANCELADO.equals(agendaEvento.evento())) {
+            disponibilidadeIndex.remover(item.id());
+        } else {
+            disponibilidadeIndex.registrar(new SlotOcupadoDto(item.id(), agendaEvento.lavaJatoId(), item.horario()));
+        }
+        agendaAoVivo.publicar(agendaEvento.lavaJatoId(), agendaEvento.evento(), agendaEvento.item());
+    }
+
+    private static int primeiroBoxLivre(List<Integer> ocupados, int boxes) {
+        for (int box = 1; box <= boxes; box++) {
+            if (!ocupados.contains(box)) {
+                return box;
+            }
+        }
+        return -1;
+    }
+
+    private ReentrantLock lockPara(Long lavaJatoId, LocalDate dia) {
+        int hash = 31 * Long.hashCode(lavaJatoId) + dia.hashCode();
+        hash ^= hash >>> 16;
+        return locks[hash & (FAIXAS_DE_LOCK - 1)];
+    }
+
+    private void adquirir(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Muitas reservas simultâneas, tente novamente.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Reserva interrompida.");
+        }
+    }
 }
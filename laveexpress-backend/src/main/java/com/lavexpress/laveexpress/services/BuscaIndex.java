@@ -0,0 +1,301 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Índice invertido dos lava-jatos para a busca livre: termo -> (lava-jato -> peso), com o
+// dicionário ordenado para expandir prefixos e procurar termos a 1-2 edições do digitado.
+// Um documento por lava-jato com nome, endereço e tipo/descrição dos serviços.
+// A reconstrução (na subida e periódica, para alcançar mudanças feitas por outras instâncias)
+// monta um índice novo fora do lock e troca a referência de uma vez; as alterações locais que
+// chegam enquanto isso são reaplicadas no novo antes da troca, e as buscas seguem no anterior.
+@Component
+public class BuscaIndex {
+
+    private static final float PESO_NOME = 3;
+
+    private static final float PESO_TIPO = 2;
+
+    private static final float PESO_ENDERECO = 1;
+
+    private static final float PESO_DESCRICAO = 1;
+
+    // Quanto vale um termo casado por prefixo ou com erro de digitação, frente ao exato
+    private static final double FATOR_PREFIXO = 0.7;
+
+    private static final double FATOR_APROXIMADO = 0.5;
+
+    private static final int TAMANHO_MINIMO_PREFIXO = 2;
+
+    private static final int MAXIMO_EXPANSOES = 50;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final ServicoRepository servicoRepository;
+
+    private final AtomicReference<Indice> atual = new AtomicReference<>(new Indice());
+
+    // Guarda só trabalho em memória: aplicar uma alteração, enfileirar para replay e a troca
+    private final Object escrita = new Object();
+
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+
+    // Alterações feitas durante uma reconstrução; null fora dela
+    private List<Consumer<Indice>> pendentes;
+
+    public BuscaIndex(LavaJatoRepository lavaJatoRepository, ServicoRepository servicoRepository) {
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.servicoRepository = servicoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lavexpress.busca.reconciliacao-ms:600000}",
+            fixedDelayString = "${lavexpress.busca.reconciliacao-ms:600000}")
+    public void reconstruir() {
+        if (!reconstrucao.tryLock()) {
+            return;
+        }
+        try {
+            long inicio = System.nanoTime();
+            synchronized (escrita) {
+                pendentes = new ArrayList<>();
+            }
+            Indice novo = new Indice();
+            try {
+                Map<Long, List<Servico>> servicos = new HashMap<>();
+                for (Servico servico : servicoRepository.findAll()) {
+                    servicos.computeIfAbsent(servico.getLavaJato().getId(), id -> new ArrayList<>()).add(servico);
+                }
+                for (LavaJato lavaJato : lavaJatoRepository.findAll()) {
+                    novo.indexar(new Documento(lavaJato.getId(), lavaJato.getNome(), lavaJato.getEndereco(),
+                            textosDosServicos(servicos.getOrDefault(lavaJato.getId(), List.of()))));
+                }
+                synchronized (escrita) {
+                    pendentes.forEach(alteracao -> alteracao.accept(novo));
+                    atual.set(novo);
+                }
+            } finally {
+                synchronized (escrita) {
+                    pendentes = null;
+                }
+            }
+            logger.info("Índice de busca reconstruído: " + novo.documentos.size() + " lava-jatos, " + novo.termos.size()
+                    + " termos em " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    public void atualizar(LavaJato lavaJato) {
+        Long id = lavaJato.getId();
+        String nome = lavaJato.getNome();
+        String endereco = lavaJato.getEndereco();
+        alterar(indice -> {
+            Documento anterior = indice.documentos.get(id);
+            indice.indexar(new Documento(id, nome, endereco, anterior != null ? anterior.servicos() : List.of()));
+        });
+    }
+
+    public void atualizarServicos(Long lavaJatoId, Collection<Servico> servicos) {
+        List<String[]> textos = textosDosServicos(servicos);
+        alterar(indice -> {
+            Documento anterior = indice.documentos.get(lavaJatoId);
+            if (anterior != null) {
+                indice.indexar(new Documento(lavaJatoId, anterior.nome(), anterior.endereco(), textos));
+            }
+        });
+    }
+
+    public void remover(Long lavaJatoId) {
+        alterar(indice -> indice.remover(lavaJatoId));
+    }
+
+    private void alterar(Consumer<Indice> alteracao) {
+        synchronized (escrita) {
+            alteracao.accept(atual.get());
+            if (pendentes != null) {
+                pendentes.add(alteracao);
+            }
+        }
+    }
+
+    // Todos os termos da consulta precisam casar (exato, prefixo ou aproximado); a relevância
+    // soma, por termo, o melhor casamento no documento ponderado pelo idf do termo do índice
+    public List<Resultado> buscar(String consulta, int limite) {
+        List<String> tokens = Texto.tokens(consulta);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Indice indice = atual.get();
+        int total = Math.max(indice.documentos.size(), 1);
+        Map<Long, Double> relevancias = null;
+        for (String token : tokens) {
+            Map<Long, Double> doToken = new HashMap<>();
+            expandir(indice.termos, token).forEach((termo, fator) -> {
+                Map<Long, Float> lavaJatos = indice.termos.get(termo);
+                if (lavaJatos == null) {
+                    return;
+                }
+                double idf = Math.log(1 + (double) total / lavaJatos.size());
+                lavaJatos.forEach((id, peso) -> doToken.merge(id, fator * idf * peso, Math::max));
+            });
+            if (relevancias == null) {
+                relevancias = doToken;
+            } else {
+                relevancias.keySet().retainAll(doToken.keySet());
+                relevancias.replaceAll((id, relevancia) -> relevancia + doToken.get(id));
+            }
+            if (relevancias.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(Comparator.comparingDouble(Resultado::relevancia));
+        relevancias.forEach((id, relevancia) -> {
+            if (melhores.size() < limite) {
+                melhores.add(new Resultado(id, relevancia));
+            } else if (relevancia > melhores.peek().relevancia()) {
+                melhores.poll();
+                melhores.add(new Resultado(id, relevancia));
+            }
+        });
+        List<Resultado> resultado = new ArrayList<>(melhores);
+        resultado.sort(Comparator.comparingDouble(Resultado::relevancia).reversed());
+        return resultado;
+    }
+
+    // Termo do índice -> fator do casamento. Os aproximados só são procurados entre termos com a
+    // mesma inicial e tamanho compatível, o que mantém a varredura pequena
+    private static Map<String, Double> expandir(NavigableMap<String, Map<Long, Float>> termos, String token) {
+        Map<String, Double> expansoes = new HashMap<>();
+        if (termos.containsKey(token)) {
+            expansoes.put(token, 1.0);
+        }
+        if (token.length() >= TAMANHO_MINIMO_PREFIXO) {
+            for (String termo : termos.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (expansoes.size() >= MAXIMO_EXPANSOES) {
+                    break;
+                }
+                expansoes.put(termo, FATOR_PREFIXO);
+            }
+        }
+        int distanciaMaxima = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (distanciaMaxima > 0) {
+            String inicial = token.substring(0, 1);
+            for (String termo : termos.subMap(inicial, true, inicial + Character.MAX_VALUE, false).keySet()) {
+                if (!expansoes.containsKey(termo)
+                        && Math.abs(termo.length() - token.length()) <= distanciaMaxima
+                        && distancia(token, termo, distanciaMaxima) <= distanciaMaxima) {
+                    expansoes.put(termo, FATOR_APROXIMADO);
+                }
+            }
+        }
+        return expansoes;
+    }
+
+    // Frequência amortecida: repetir a palavra no nome não vale o dobro
+    private static void acumular(Map<String, Float> pesos, String texto, float peso) {
+        for (String termo : Texto.tokens(texto)) {
+            pesos.merge(termo, peso, (atual, novo) -> Math.max(atual, novo) + 0.1f * Math.min(atual, novo));
+        }
+    }
+
+    private static List<String[]> textosDosServicos(Collection<Servico> servicos) {
+        return servicos.stream().map(servico -> new String[]{servico.getTipo(), servico.getDescricao()}).toList();
+    }
+
+    // Levenshtein em duas linhas, abandonando quando a linha inteira passa do máximo
+    static int distancia(String a, String b, int maximo) {
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menor = atual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                atual[j] = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                menor = Math.min(menor, atual[j]);
+            }
+            if (menor > maximo) {
+                return maximo + 1;
+            }
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return anterior[b.length()];
+    }
+
+    public record Resultado(Long lavaJatoId, double relevancia) {
+    }
+
+    private static final class Indice {
+
+        private final NavigableMap<String, Map<Long, Float>> termos = new ConcurrentSkipListMap<>();
+
+        private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+        private void indexar(Documento documento) {
+            remover(documento.id());
+            Map<String, Float> pesos = documento.pesos();
+            acumular(pesos, documento.nome(), PESO_NOME);
+            acumular(pesos, documento.endereco(), PESO_ENDERECO);
+            for (String[] servico : documento.servicos()) {
+                acumular(pesos, servico[0], PESO_TIPO);
+                acumular(pesos, servico[1], PESO_DESCRICAO);
+            }
+            documentos.put(documento.id(), documento);
+            pesos.forEach((termo, peso) -> termos.computeIfAbsent(termo, t -> new ConcurrentHashMap<>()).put(documento.id(), peso));
+        }
+
+        private void remover(Long lavaJatoId) {
+            Documento documento = documentos.remove(lavaJatoId);
+            if (documento == null) {
+                return;
+            }
+            for (String termo : documento.pesos().keySet()) {
+                Map<Long, Float> lavaJatos = termos.get(termo);
+                if (lavaJatos != null) {
+                    lavaJatos.remove(lavaJatoId);
+                    if (lavaJatos.isEmpty()) {
+                        termos.remove(termo);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Documento(Long id, String nome, String endereco, List<String[]> servicos, Map<String, Float> pesos) {
+
+        Documento(Long id, String nome, String endereco, List<String[]> servicos) {
+            this(id, nome, endereco, servicos, new HashMap<>());
+        }
+    }
+}
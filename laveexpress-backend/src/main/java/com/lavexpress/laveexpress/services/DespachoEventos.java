@@ -0,0 +1,222 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.entities.EventoSaida;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Esvazia evento_saida em lotes. Cada lote é reservado numa transação curta (for update skip
+// locked, então várias instâncias dividem o trabalho) empurrando proxima_tentativa para depois
+// do "lease"; os envios rodam fora da transação, em paralelo; o resultado volta em batch. Se a
+// instância cair no meio, o lease vence e o lote é reenviado: entrega pelo menos uma vez.
+@Component
+@ConditionalOnProperty(prefix = "lavexpress.eventos.despacho", name = "habilitado", havingValue = "true", matchIfMissing = true)
+public class DespachoEventos {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    // Lotes seguidos por execução agendada antes de devolver o thread do scheduler
+    private static final int MAXIMO_LOTES_POR_RODADA = 20;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EnviadorEventos enviador;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int tamanhoLote;
+
+    private final int maximoTentativas;
+
+    private final Duration lease;
+
+    private final Duration esperaInicial;
+
+    private final Duration esperaMaxima;
+
+    public DespachoEventos(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           EnviadorEventos enviador,
+                           @Value("${lavexpress.eventos.despacho.threads:4}") int threads,
+                           @Value("${lavexpress.eventos.despacho.lote:100}") int tamanhoLote,
+                           @Value("${lavexpress.eventos.despacho.maximo-tentativas:10}") int maximoTentativas,
+                           @Value("${lavexpress.eventos.despacho.lease:60s}") Duration lease,
+                           @Value("${lavexpress.eventos.despacho.espera-inicial:5s}") Duration esperaInicial,
+                           @Value("${lavexpress.eventos.despacho.espera-maxima:1h}") Duration esperaMaxima) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enviador = enviador;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.lease = lease;
+        this.esperaInicial = esperaInicial;
+        this.esperaMaxima = esperaMaxima;
+        AtomicInteger contador = new AtomicInteger();
+        // Fila do tamanho do lote: nunca há mais de um lote em voo
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoLote),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "despacho-eventos-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${lavexpress.eventos.despacho.intervalo-ms:1000}")
+    public void despachar() {
+        try {
+            for (int i = 0; i < MAXIMO_LOTES_POR_RODADA; i++) {
+                List<Evento> lote = reservar();
+                if (lote.isEmpty()) {
+                    return;
+                }
+                List<String> erros = enviar(lote);
+                if (erros == null) {
+                    devolver(lote);
+                    return;
+                }
+                registrarResultado(lote, erros);
+                if (lote.size() < tamanhoLote) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Encerramento: o lote em voo volta quando o lease vencer
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Enviados ficam alguns dias para consulta; os que falharam de vez ficam até alguém olhar
+    @Scheduled(cron = "0 30 3 * * *")
+    public void limpar() {
+        int removidos = jdbcTemplate.update("delete from evento_saida where status = ? and enviado_em < now() - make_interval(days => ?)",
+                EventoSaida.ENVIADO, 7);
+        if (removidos > 0) {
+            logger.info(removidos + " eventos enviados removidos de evento_saida");
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    // tentativas sobe já na reserva: um evento que derruba a instância também esgota as tentativas
+    private List<Evento> reservar() {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+                "update evento_saida set proxima_tentativa = now() + make_interval(secs => ?), tentativas = tentativas + 1 " +
+                        "where id in (select id from evento_saida where status = ? and proxima_tentativa <= now() " +
+                        "order by proxima_tentativa limit ? for update skip locked) " +
+                        "returning id, tipo, payload, tentativas",
+                (rs, linha) -> new Evento(rs.getLong("id"), rs.getString("tipo"), rs.getString("payload"), rs.getInt("tentativas")),
+                lease.toSeconds(), EventoSaida.PENDENTE, tamanhoLote));
+    }
+
+    // null = enviado; senão a mensagem do erro. Lista null: o pool recusou o lote (a fila ainda tem
+    // tarefas de um lote anterior que estourou o tempo) e nada dele foi enviado
+    private List<String> enviar(List<Evento> lote) throws InterruptedException {
+        List<Callable<String>> tarefas = new ArrayList<>(lote.size());
+        for (Evento evento : lote) {
+            tarefas.add(() -> {
+                try {
+                    enviador.enviar(evento.id(), evento.tipo(), evento.payload());
+                    return null;
+                } catch (Exception e) {
+                    return e.getClass().getSimpleName() + ": " + e.getMessage();
+                }
+            });
+        }
+        List<Future<String>> futuros;
+        try {
+            futuros = executor.invokeAll(tarefas, lease.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // invokeAll já cancelou as tarefas aceitas
+            logger.warn("Pool de despacho cheio; lote de " + lote.size() + " eventos fica para a próxima rodada");
+            return null;
+        }
+        List<String> erros = new ArrayList<>(lote.size());
+        for (Future<String> futuro : futuros) {
+            try {
+                erros.add(futuro.isCancelled() ? "Tempo de envio esgotado" : futuro.get());
+            } catch (ExecutionException e) {
+                erros.add(e.getCause().toString());
+            }
+        }
+        return erros;
+    }
+
+    // Desfaz a reserva: o lote volta a ficar disponível já, sem gastar tentativa
+    private void devolver(List<Evento> lote) {
+        List<Object[]> ids = lote.stream().map(evento -> new Object[]{evento.id()}).toList();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                "update evento_saida set proxima_tentativa = now(), tentativas = tentativas - 1 where id = ?", ids));
+    }
+
+    private void registrarResultado(List<Evento> lote, List<String> erros) {
+        List<Object[]> enviados = new ArrayList<>();
+        List<Object[]> reagendados = new ArrayList<>();
+        List<Object[]> falhas = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            Evento evento = lote.get(i);
+            String erro = erros.get(i);
+            if (erro == null) {
+                enviados.add(new Object[]{EventoSaida.ENVIADO, evento.id()});
+                continue;
+            }
+            erro = erro.length() > TAMANHO_MAXIMO_ERRO ? erro.substring(0, TAMANHO_MAXIMO_ERRO) : erro;
+            if (evento.tentativas() >= maximoTentativas) {
+                logger.warn("Evento " + evento.id() + " " + evento.tipo() + " desistido após " + evento.tentativas() + " tentativas: " + erro);
+                falhas.add(new Object[]{EventoSaida.FALHOU, erro, evento.id()});
+            } else {
+                reagendados.add(new Object[]{espera(evento.tentativas()).toMillis() / 1000.0, erro, evento.id()});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!enviados.isEmpty()) {
+                jdbcTemplate.batchUpdate("update evento_saida set status = ?, enviado_em = now(), erro = null where id = ?", enviados);
+            }
+            if (!reagendados.isEmpty()) {
+                jdbcTemplate.batchUpdate("update evento_saida set proxima_tentativa = now() + make_interval(secs => ?), erro = ? where id = ?", reagendados);
+            }
+            if (!falhas.isEmpty()) {
+                jdbcTemplate.batchUpdate("update evento_saida set status = ?, erro = ? where id = ?", falhas);
+            }
+        });
+    }
+
+    // Exponencial a partir de espera-inicial, limitada a espera-maxima, com ±20% de variação
+    // para as falhas de um mesmo lote não voltarem todas juntas
+    private Duration espera(int tentativas) {
+        long base = esperaInicial.toMillis() << Math.min(tentativas - 1, 20);
+        long limitada = Math.min(base, esperaMaxima.toMillis());
+        return Duration.ofMillis((long) (limitada * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+
+    private record Evento(long id, String tipo, String payload, int tentativas) {
+    }
+}
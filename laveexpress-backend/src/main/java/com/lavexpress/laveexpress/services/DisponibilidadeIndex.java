@@ -0,0 +1,223 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.HorarioDisponivelDto;
+import com.lavexpress.laveexpress.dtos.SlotOcupadoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Ocupação dos slots futuros de cada lava-jato, mantida em memória para a tela de agendamento
+// não precisar varrer a tabela agendamento a cada consulta.
+// Cada instância tem o seu: as reservas das outras chegam pelo NOTIFY da agenda, e a
+// reconstrução periódica alcança o que o aviso não cobre (grade alterada em outra instância,
+// notificação perdida numa reconexão). Como no BuscaIndex, o estado novo é montado à parte, as
+// alterações feitas durante a montagem são reaplicadas nele e a referência é trocada de uma vez.
+@Component
+public class DisponibilidadeIndex {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final AgendamentoRepository agendamentoRepository;
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final AtomicReference<Estado> atual = new AtomicReference<>(new Estado());
+
+    // Guarda só trabalho em memória: aplicar uma alteração, enfileirar para replay e a troca
+    private final Object escrita = new Object();
+
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+
+    // Alterações feitas durante uma reconstrução; null fora dela
+    private List<Consumer<Estado>> pendentes;
+
+    public DisponibilidadeIndex(AgendamentoRepository agendamentoRepository, LavaJatoRepository lavaJatoRepository) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.lavaJatoRepository = lavaJatoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lavexpress.disponibilidade.reconciliacao-ms:600000}",
+            fixedDelayString = "${lavexpress.disponibilidade.reconciliacao-ms:600000}")
+    public void reconstruir() {
+        if (!reconstrucao.tryLock()) {
+            return;
+        }
+        try {
+            long inicio = System.nanoTime();
+            synchronized (escrita) {
+                pendentes = new ArrayList<>();
+            }
+            Estado novo = new Estado();
+            try {
+                for (LavaJato lavaJato : lavaJatoRepository.findAll()) {
+                    novo.grades.put(lavaJato.getId(), GradeHorarios.de(lavaJato));
+                }
+                for (SlotOcupadoDto slot : agendamentoRepository.findSlotsOcupadosDesde(LocalDate.now().atStartOfDay())) {
+                    GradeHorarios grade = novo.grades.get(slot.lavaJatoId());
+                    if (grade != null) {
+                        novo.registrar(slot, grade);
+                    }
+                }
+                synchronized (escrita) {
+                    pendentes.forEach(alteracao -> alteracao.accept(novo));
+                    atual.set(novo);
+                }
+            } finally {
+                synchronized (escrita) {
+                    pendentes = null;
+                }
+            }
+            logger.info("Índice de disponibilidade reconstruído: " + novo.grades.size() + " lava-jatos, "
+                    + novo.reservas.size() + " agendamentos em " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    public List<HorarioDisponivelDto> disponiveis(Long lavaJatoId, LocalDate dia) {
+        Estado estado = atual.get();
+        GradeHorarios grade = grade(estado, lavaJatoId);
+        List<HorarioDisponivelDto> livres = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+        if (grade == null || dia.isBefore(agora.toLocalDate())) {
+            return livres;
+        }
+
+        AtomicIntegerArray contagem = estado.ocupacao.get(new ChaveDia(lavaJatoId, dia));
+        for (int slot = 0; slot < grade.quantidadeSlots(); slot++) {
+            LocalTime horario = grade.horarioDoSlot(slot);
+            if (!dia.atTime(horario).isAfter(agora)) {
+                continue;
+            }
+            int vagas = grade.boxes() - (contagem == null || slot >= contagem.length() ? 0 : contagem.get(slot));
+            if (vagas > 0) {
+                livres.add(new HorarioDisponivelDto(horario, vagas));
+            }
+        }
+        return livres;
+    }
+
+    public void registrar(SlotOcupadoDto slotOcupado) {
+        // A grade é resolvida antes, fora do lock: pode precisar ir ao banco
+        GradeHorarios grade = grade(atual.get(), slotOcupado.lavaJatoId());
+        if (grade == null) {
+            return;
+        }
+        alterar(estado -> estado.registrar(slotOcupado, estado.grades.computeIfAbsent(slotOcupado.lavaJatoId(), id -> grade)));
+    }
+
+    public void remover(Long agendamentoId) {
+        alterar(estado -> estado.remover(agendamentoId));
+    }
+
+    // Mudou a grade do lava-jato: os índices de slot antigos não valem mais, recarrega só os dele
+    public void atualizarGrade(LavaJato lavaJato) {
+        Long lavaJatoId = lavaJato.getId();
+        GradeHorarios nova = GradeHorarios.de(lavaJato);
+        if (nova.equals(atual.get().grades.get(lavaJatoId))) {
+            return;
+        }
+        List<SlotOcupadoDto> slots = agendamentoRepository.findSlotsOcupadosDesde(lavaJatoId, LocalDate.now().atStartOfDay());
+        alterar(estado -> {
+            estado.removerLavaJato(lavaJatoId);
+            estado.grades.put(lavaJatoId, nova);
+            slots.forEach(slot -> estado.registrar(slot, nova));
+        });
+    }
+
+    public void removerLavaJato(Long lavaJatoId) {
+        alterar(estado -> estado.removerLavaJato(lavaJatoId));
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void descartarDiasPassados() {
+        LocalDate hoje = LocalDate.now();
+        alterar(estado -> {
+            estado.reservas.values().removeIf(reserva -> reserva.chave().dia().isBefore(hoje));
+            estado.ocupacao.keySet().removeIf(chave -> chave.dia().isBefore(hoje));
+        });
+    }
+
+    private void alterar(Consumer<Estado> alteracao) {
+        synchronized (escrita) {
+            alteracao.accept(atual.get());
+            if (pendentes != null) {
+                pendentes.add(alteracao);
+            }
+        }
+    }
+
+    private GradeHorarios grade(Estado estado, Long lavaJatoId) {
+        GradeHorarios grade = estado.grades.get(lavaJatoId);
+        if (grade != null) {
+            return grade;
+        }
+        // Lava-jato criado em outra instância depois da reconstrução
+        return lavaJatoRepository.findById(lavaJatoId)
+                .map(lavaJato -> estado.grades.computeIfAbsent(lavaJatoId, id -> GradeHorarios.de(lavaJato)))
+                .orElse(null);
+    }
+
+    // Consultas leem sem lock enquanto as alterações são aplicadas, por isso os mapas concorrentes
+    private static final class Estado {
+
+        private final Map<Long, GradeHorarios> grades = new ConcurrentHashMap<>();
+
+        private final Map<ChaveDia, AtomicIntegerArray> ocupacao = new ConcurrentHashMap<>();
+
+        private final Map<Long, Reserva> reservas = new ConcurrentHashMap<>();
+
+        private void registrar(SlotOcupadoDto slotOcupado, GradeHorarios grade) {
+            remover(slotOcupado.id());
+            int slot = grade.indiceSlot(slotOcupado.horario().toLocalTime());
+            if (slot < 0) {
+                return;
+            }
+            ChaveDia chave = new ChaveDia(slotOcupado.lavaJatoId(), slotOcupado.horario().toLocalDate());
+            ocupacao.computeIfAbsent(chave, c -> new AtomicIntegerArray(grade.quantidadeSlots())).incrementAndGet(slot);
+            reservas.put(slotOcupado.id(), new Reserva(chave, slot));
+        }
+
+        private void remover(Long agendamentoId) {
+            Reserva reserva = reservas.remove(agendamentoId);
+            if (reserva == null) {
+                return;
+            }
+            AtomicIntegerArray contagem = ocupacao.get(reserva.chave());
+            if (contagem != null) {
+                contagem.decrementAndGet(reserva.slot());
+            }
+        }
+
+        private void removerLavaJato(Long lavaJatoId) {
+            grades.remove(lavaJatoId);
+            reservas.values().removeIf(reserva -> reserva.chave().lavaJatoId().equals(lavaJatoId));
+            ocupacao.keySet().removeIf(chave -> chave.lavaJatoId().equals(lavaJatoId));
+        }
+    }
+
+    private record ChaveDia(Long lavaJatoId, LocalDate dia) {
+    }
+
+    private record Reserva(ChaveDia chave, int slot) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.lavexpress.laveexpress.services;
+
+// Entrega de um evento da caixa de saída (e-mail, SMS, push...). Exceção = nova tentativa
+// depois; a entrega é pelo menos uma vez, então o enviador deve tolerar repetição (id do evento).
+public interface EnviadorEventos {
+
+    void enviar(Long id, String tipo, String payload) throws Exception;
+}
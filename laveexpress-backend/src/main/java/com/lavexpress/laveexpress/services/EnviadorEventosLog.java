@@ -0,0 +1,19 @@
+package com.lavexpress.laveexpress.services;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Enviador local: só registra no log. Outro enviador entra com lavexpress.eventos.enviador
+@Component
+@ConditionalOnProperty(prefix = "lavexpress.eventos", name = "enviador", havingValue = "log", matchIfMissing = true)
+public class EnviadorEventosLog implements EnviadorEventos {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    @Override
+    public void enviar(Long id, String tipo, String payload) {
+        logger.info("Evento " + id + " " + tipo + ": " + payload);
+    }
+}
@@ -0,0 +1,41 @@
+package com.lavexpress.laveexpress.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lavexpress.laveexpress.dtos.AgendamentoEventoDto;
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.entities.EventoSaida;
+import com.lavexpress.laveexpress.repositories.EventoSaidaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Grava o evento na transação de quem chama: se a reserva for desfeita, o evento também é
+@Service
+public class EventoSaidaService {
+
+    public static final String AGENDAMENTO_CRIADO = "AGENDAMENTO_CRIADO";
+
+    public static final String AGENDAMENTO_CANCELADO = "AGENDAMENTO_CANCELADO";
+
+    private final EventoSaidaRepository eventoSaidaRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public EventoSaidaService(EventoSaidaRepository eventoSaidaRepository, ObjectMapper objectMapper) {
+        this.eventoSaidaRepository = eventoSaidaRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(String tipo, Agendamento agendamento) {
+        var evento = new AgendamentoEventoDto(agendamento.getId(), agendamento.getLavaJato().getId(),
+                agendamento.getUsuario().getId(), agendamento.getHorario(), agendamento.getBox(),
+                agendamento.getTipo(), agendamento.getValor());
+        try {
+            eventoSaidaRepository.save(new EventoSaida(tipo, agendamento.getId(), objectMapper.writeValueAsString(evento)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento " + tipo + " não serializável", e);
+        }
+    }
+}
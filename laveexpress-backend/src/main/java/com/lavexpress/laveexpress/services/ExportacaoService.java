@@ -0,0 +1,166 @@
+package com.lavexpress.laveexpress.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lavexpress.laveexpress.dtos.AgendamentoExportadoDto;
+import com.lavexpress.laveexpress.dtos.ReceitaDiariaDto;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Exportações linha a linha, sem montar lista: o banco é lido em páginas limitadas, cada uma na
+// sua transação curta (ver AgendamentoRepository), e cada página vai para o OutputStream antes da
+// próxima consulta. Um cliente lento segura a thread da exportação, nunca uma conexão do pool.
+// A memória usada não depende do tamanho do período.
+@Service
+public class ExportacaoService {
+
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private static final int TAMANHO_PAGINA = 1000;
+
+    private final AgendamentoRepository agendamentoRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public ExportacaoService(AgendamentoRepository agendamentoRepository, ObjectMapper objectMapper) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportarAgendamentos(Long lavaJatoId, LocalDate inicio, LocalDate fim, Formato formato, OutputStream saida) throws IOException {
+        LocalDateTime ate = fim.plusDays(1).atStartOfDay();
+        Pageable pagina = PageRequest.ofSize(TAMANHO_PAGINA);
+        // Keyset em (horario, box), a ordem de uk_agendamento_slot; a página seguinte começa depois da última linha
+        Stream<AgendamentoExportadoDto> linhas = Stream.iterate(
+                        agendamentoRepository.findExportacaoApos(lavaJatoId, inicio.atStartOfDay(), Integer.MIN_VALUE, ate, pagina),
+                        anterior -> !anterior.isEmpty(),
+                        anterior -> {
+                            if (anterior.size() < TAMANHO_PAGINA) {
+                                return List.of();
+                            }
+                            AgendamentoExportadoDto ultimo = anterior.get(anterior.size() - 1);
+                            return agendamentoRepository.findExportacaoApos(lavaJatoId, ultimo.horario(), ultimo.box(), ate, pagina);
+                        })
+                .flatMap(List::stream);
+        escrever(linhas, AgendamentoExportadoDto.class, formato, saida,
+                List.of("id", "horario", "box", "servico_tipo", "valor", "usuario_id", "usuario_nome"),
+                a -> List.of(a.id(), a.horario(), a.box(), a.servicoTipo(), a.valor(), a.usuarioId(), a.usuarioNome()));
+    }
+
+    // Um mês por consulta: no máximo ~31 dias x tipos de serviço linhas por página
+    public void exportarReceita(Long lavaJatoId, LocalDate inicio, LocalDate fim, Formato formato, OutputStream saida) throws IOException {
+        LocalDate ate = fim.plusDays(1);
+        Stream<ReceitaDiariaDto> linhas = Stream.iterate(inicio, mes -> mes.isBefore(ate), mes -> mes.plusMonths(1))
+                .flatMap(mes -> {
+                    LocalDate proximo = mes.plusMonths(1).isBefore(ate) ? mes.plusMonths(1) : ate;
+                    return agendamentoRepository.findReceitaDiaria(lavaJatoId, mes.atStartOfDay(), proximo.atStartOfDay()).stream();
+                });
+        escrever(linhas, ReceitaDiariaDto.class, formato, saida,
+                List.of("dia", "servico_tipo", "quantidade", "receita"),
+                r -> List.of(r.dia(), r.servicoTipo(), r.quantidade(), r.receita()));
+    }
+
+    private <T> void escrever(Stream<T> linhas, Class<T> tipo, Formato formato, OutputStream saida,
+                              List<String> cabecalho, Function<T, List<Object>> colunas) throws IOException {
+        if (formato == Formato.JSON) {
+            escreverJson(linhas.iterator(), tipo, saida);
+        } else {
+            escreverCsv(linhas.iterator(), saida, cabecalho, colunas);
+        }
+    }
+
+    // Array JSON montado elemento a elemento; sem flush por linha para não virar um chunk HTTP por registro
+    private <T> void escreverJson(Iterator<T> linhas, Class<T> tipo, OutputStream saida) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(tipo).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gerador.writeStartArray();
+        while (linhas.hasNext()) {
+            writer.writeValue(gerador, linhas.next());
+        }
+        gerador.writeEndArray();
+        gerador.close();
+    }
+
+    private <T> void escreverCsv(Iterator<T> linhas, OutputStream saida, List<String> cabecalho,
+                                 Function<T, List<Object>> colunas) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        escreverLinhaCsv(writer, cabecalho);
+        while (linhas.hasNext()) {
+            escreverLinhaCsv(writer, colunas.apply(linhas.next()));
+        }
+        writer.flush();
+    }
+
+    private void escreverLinhaCsv(Writer writer, List<?> valores) throws IOException {
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object valor = valores.get(i);
+            if (valor == null) {
+                continue;
+            }
+            String texto = valor.toString();
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(texto.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(texto);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    public enum Formato {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        JSON("json", MediaType.APPLICATION_JSON);
+
+        private final String extensao;
+
+        private final MediaType mediaType;
+
+        Formato(String extensao, MediaType mediaType) {
+            this.extensao = extensao;
+            this.mediaType = mediaType;
+        }
+
+        public String extensao() {
+            return extensao;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Formato de(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato deve ser csv ou json.");
+            }
+        }
+    }
+}
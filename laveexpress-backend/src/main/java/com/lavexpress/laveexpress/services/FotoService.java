@@ -0,0 +1,283 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Fotos de perfil em disco, com nome = SHA-256 do conteúdo: o arquivo de um nome nunca muda, então
+// pode ser servido com cache imutável e sem consultar o banco. O upload já chega em disco
+// (multipart.file-size-threshold: 0) e é copiado em blocos calculando o hash; as miniaturas
+// quadradas saem depois, num pool próprio, e até ficarem prontas a original é servida no lugar.
+// Arquivos antigos não são apagados na troca: o mesmo conteúdo pode ser a foto de outro usuário.
+@Service
+public class FotoService {
+
+    private static final Pattern NOME = Pattern.compile("([0-9a-f]{64})\\.(jpg|png)");
+
+    // Área máxima decodificada para as miniaturas (contra imagens pequenas no disco e enormes na memória)
+    private static final long PIXELS_MAXIMO = 40_000_000L;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Path diretorio;
+
+    private final long tamanhoMaximo;
+
+    private final List<Integer> miniaturas;
+
+    public FotoService(UsuarioRepository usuarioRepository,
+                       @Value("${lavexpress.fotos.diretorio:fotos}") Path diretorio,
+                       @Value("${lavexpress.fotos.tamanho-maximo:10MB}") DataSize tamanhoMaximo,
+                       @Value("${lavexpress.fotos.miniaturas:64,256}") List<Integer> miniaturas,
+                       @Value("${lavexpress.fotos.threads:2}") int threads,
+                       @Value("${lavexpress.fotos.fila:100}") int capacidadeFila) throws IOException {
+        this.usuarioRepository = usuarioRepository;
+        this.diretorio = Files.createDirectories(diretorio).toAbsolutePath();
+        this.tamanhoMaximo = tamanhoMaximo.toBytes();
+        this.miniaturas = List.copyOf(miniaturas);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "miniaturas-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Devolve o novo photoPath (nome do arquivo)
+    public String salvar(Long usuarioId, MultipartFile arquivo) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado.");
+        }
+        if (arquivo.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Arquivo vazio.");
+        }
+        if (arquivo.getSize() > tamanhoMaximo) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Foto maior que " + tamanhoMaximo / 1024 + " KB.");
+        }
+
+        String nome;
+        Path temporario = null;
+        try {
+            String extensao;
+            try (InputStream entrada = arquivo.getInputStream()) {
+                extensao = extensao(entrada.readNBytes(8));
+            }
+            if (extensao == null) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Foto deve ser JPEG ou PNG.");
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            temporario = Files.createTempFile(diretorio, "upload-", ".tmp");
+            try (InputStream entrada = new DigestInputStream(arquivo.getInputStream(), digest)) {
+                Files.copy(entrada, temporario, StandardCopyOption.REPLACE_EXISTING);
+            }
+            nome = HexFormat.of().formatHex(digest.digest()) + "." + extensao;
+            Path destino = diretorio.resolve(nome);
+            if (Files.exists(destino)) {
+                Files.delete(temporario);
+            } else {
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            apagar(temporario);
+            throw new UncheckedIOException("Falha ao gravar foto do usuário " + usuarioId, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            apagar(temporario);
+            throw e;
+        }
+
+        gerarMiniaturas(nome);
+        usuarioRepository.atualizarFoto(usuarioId, nome);
+        return nome;
+    }
+
+    // Só resolve arquivos com nome de hash: nada de caminhos vindos do cliente
+    public Optional<Foto> abrir(String nome, Integer tamanho) {
+        Matcher matcher = NOME.matcher(nome);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        Path original = diretorio.resolve(nome);
+        if (tamanho != null) {
+            if (!miniaturas.contains(tamanho)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tamanhos disponíveis: " + miniaturas + ".");
+            }
+            Path miniatura = diretorio.resolve(nomeMiniatura(matcher.group(1), tamanho));
+            if (Files.isReadable(miniatura)) {
+                return foto(miniatura, MediaType.IMAGE_JPEG, true);
+            }
+            // Miniatura ainda na fila (ou descartada): a original vale por enquanto, sem cache
+            return foto(original, tipo(matcher.group(2)), false);
+        }
+        return foto(original, tipo(matcher.group(2)), true);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private void gerarMiniaturas(String nome) {
+        try {
+            executor.execute(() -> {
+                try {
+                    gerar(nome);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Falha ao gerar miniaturas de " + nome, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Fila de miniaturas cheia; " + nome + " fica só com a original");
+        }
+    }
+
+    private void gerar(String nome) throws IOException {
+        String hash = nome.substring(0, nome.indexOf('.'));
+        int maior = miniaturas.stream().mapToInt(Integer::intValue).max().orElse(0);
+        BufferedImage imagem = ler(diretorio.resolve(nome), maior);
+        if (imagem == null) {
+            return;
+        }
+        int lado = Math.min(imagem.getWidth(), imagem.getHeight());
+        int x = (imagem.getWidth() - lado) / 2;
+        int y = (imagem.getHeight() - lado) / 2;
+        for (int tamanho : miniaturas) {
+            Path destino = diretorio.resolve(nomeMiniatura(hash, tamanho));
+            if (Files.exists(destino)) {
+                continue;
+            }
+            BufferedImage miniatura = new BufferedImage(tamanho, tamanho, BufferedImage.TYPE_INT_RGB);
+            Graphics2D grafico = miniatura.createGraphics();
+            try {
+                grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // PNG com transparência vira JPEG sobre fundo branco
+                grafico.setColor(Color.WHITE);
+                grafico.fillRect(0, 0, tamanho, tamanho);
+                grafico.drawImage(imagem, 0, 0, tamanho, tamanho, x, y, x + lado, y + lado, null);
+            } finally {
+                grafico.dispose();
+            }
+            Path temporario = Files.createTempFile(diretorio, "miniatura-", ".tmp");
+            try {
+                ImageIO.write(miniatura, "jpg", temporario.toFile());
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                apagar(temporario);
+            }
+        }
+    }
+
+    // Decodifica com subamostragem: só o necessário para a maior miniatura vai para a memória
+    private BufferedImage ler(Path arquivo, int maior) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(arquivo.toFile())) {
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+            if (!leitores.hasNext()) {
+                logger.warn("Formato de imagem não reconhecido: " + arquivo.getFileName());
+                return null;
+            }
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada, true, true);
+                int largura = leitor.getWidth(0);
+                int altura = leitor.getHeight(0);
+                if ((long) largura * altura > PIXELS_MAXIMO) {
+                    logger.warn("Imagem " + arquivo.getFileName() + " com " + largura + "x" + altura + " pixels; miniaturas não geradas");
+                    return null;
+                }
+                int passo = Math.max(1, Math.min(largura, altura) / (maior * 2));
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                parametros.setSourceSubsampling(passo, passo, 0, 0);
+                return leitor.read(0, parametros);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    private Optional<Foto> foto(Path arquivo, MediaType tipo, boolean definitiva) {
+        try {
+            return Optional.of(new Foto(arquivo, Files.size(arquivo), tipo, definitiva));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String extensao(byte[] inicio) {
+        if (inicio.length >= 3 && (inicio[0] & 0xFF) == 0xFF && (inicio[1] & 0xFF) == 0xD8 && (inicio[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (inicio.length >= 8 && (inicio[0] & 0xFF) == 0x89 && inicio[1] == 'P' && inicio[2] == 'N' && inicio[3] == 'G') {
+            return "png";
+        }
+        return null;
+    }
+
+    private static MediaType tipo(String extensao) {
+        return "png".equals(extensao) ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG;
+    }
+
+    private static String nomeMiniatura(String hash, int tamanho) {
+        return hash + "-" + tamanho + ".jpg";
+    }
+
+    private void apagar(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível apagar " + arquivo, e);
+        }
+    }
+
+    // definitiva = false quando é a original servida no lugar de uma miniatura ainda não gerada
+    public record Foto(Path arquivo, long tamanho, MediaType tipo, boolean definitiva) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.entities.LavaJato;
+
+import java.time.LocalTime;
+import java.util.Objects;
+
+public record GradeHorarios(int boxes, LocalTime abertura, LocalTime fechamento, int duracaoSlotMinutos) {
+
+    public static GradeHorarios de(LavaJato lavaJato) {
+        return new GradeHorarios(
+                Objects.requireNonNullElse(lavaJato.getQuantidadeBoxes(), 1),
+                Objects.requireNonNullElse(lavaJato.getHorarioAbertura(), LocalTime.of(8, 0)),
+                Objects.requireNonNullElse(lavaJato.getHorarioFechamento(), LocalTime.of(18, 0)),
+                Objects.requireNonNullElse(lavaJato.getDuracaoSlotMinutos(), 30));
+    }
+
+    public int quantidadeSlots() {
+        int minutos = fechamento.toSecondOfDay() / 60 - abertura.toSecondOfDay() / 60;
+        return Math.max(0, minutos / duracaoSlotMinutos);
+    }
+
+    public int indiceSlot(LocalTime horario) {
+        if (horario.getSecond() != 0 || horario.getNano() != 0) {
+            return -1;
+        }
+        int minutos = horario.toSecondOfDay() / 60 - abertura.toSecondOfDay() / 60;
+        if (minutos < 0 || minutos % duracaoSlotMinutos != 0) {
+            return -1;
+        }
+        int indice = minutos / duracaoSlotMinutos;
+        return indice < quantidadeSlots() ? indice : -1;
+    }
+
+    public LocalTime horarioDoSlot(int indice) {
+        return abertura.plusMinutes((long) indice * duracaoSlotMinutos);
+    }
+}
@@ -0,0 +1,476 @@
+package com.lavexpress.laveexpress.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lavexpress.laveexpress.dtos.ErroImportacaoDto;
+import com.lavexpress.laveexpress.dtos.ImportacaoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Importação de redes de lava-jatos por CSV, uma linha por serviço:
+// cnpj, nome, endereco, telefone, email, latitude, longitude,
+// proprietario_email, proprietario_nome, servico_tipo, servico_descricao, servico_valor
+// O arquivo é lido registro a registro e gravado em lotes de TAMANHO_CHUNK, cada um na sua transação.
+// Em memória ficam só o lote atual e os ids de lava-jatos/donos já resolvidos, nunca o arquivo.
+// O andamento fica só em memória, na instância que recebeu o upload, e some num restart: a
+// consulta em outra instância responde 404, e o balanceador deve manter o admin na mesma. As
+// linhas já gravadas continuam no banco; reenviar o arquivo é seguro, a importação é por upsert.
+@Service
+public class ImportacaoService {
+
+    private static final List<String> COLUNAS_OBRIGATORIAS =
+            List.of("cnpj", "nome", "proprietario_email", "servico_tipo", "servico_valor");
+
+    private static final int TAMANHO_CHUNK = 500;
+
+    private static final int MAXIMO_ERROS = 1000;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final ServicoRepository servicoRepository;
+
+    private final UsuarioService usuarioService;
+
+    private final LavaJatoService lavaJatoService;
+
+    private final ServicoService servicoService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Cache<String, Importacao> importacoes = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+
+    public ImportacaoService(UsuarioRepository usuarioRepository,
+                             LavaJatoRepository lavaJatoRepository,
+                             ServicoRepository servicoRepository,
+                             UsuarioService usuarioService,
+                             LavaJatoService lavaJatoService,
+                             ServicoService servicoService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${lavexpress.importacao.fila:4}") int capacidadeFila) {
+        this.usuarioRepository = usuarioRepository;
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.servicoRepository = servicoRepository;
+        this.usuarioService = usuarioService;
+        this.lavaJatoService = lavaJatoService;
+        this.servicoService = servicoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Uma importação por vez: o primário continua livre para o tráfego normal
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "importacao-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public ImportacaoDto iniciar(MultipartFile arquivo) {
+        Path temporario;
+        try {
+            temporario = Files.createTempFile("importacao-", ".csv");
+            arquivo.transferTo(temporario);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Não foi possível receber o arquivo.", e);
+        }
+        Importacao importacao = new Importacao(UUID.randomUUID().toString(), arquivo.getOriginalFilename());
+        importacoes.put(importacao.id, importacao);
+        try {
+            executor.execute(() -> processar(importacao, temporario));
+        } catch (RejectedExecutionException e) {
+            importacoes.invalidate(importacao.id);
+            apagar(temporario);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Fila de importações cheia, tente novamente mais tarde.");
+        }
+        return importacao.dto();
+    }
+
+    public Optional<ImportacaoDto> buscar(String id) {
+        return Optional.ofNullable(importacoes.getIfPresent(id)).map(Importacao::dto);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private void processar(Importacao importacao, Path arquivo) {
+        importacao.status = "PROCESSANDO";
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(arquivo), StandardCharsets.UTF_8), 1 << 16)) {
+            String primeiraLinha = espiarCabecalho(reader);
+            char separador = primeiraLinha.indexOf(';') >= 0 ? ';' : ',';
+            try (LeitorCsv leitor = new LeitorCsv(reader, separador)) {
+                Map<String, Integer> colunas = indexar(leitor.proximo());
+                List<String> ausentes = COLUNAS_OBRIGATORIAS.stream().filter(c -> !colunas.containsKey(c)).toList();
+                if (!ausentes.isEmpty()) {
+                    importacao.falhar("Colunas obrigatórias ausentes: " + String.join(", ", ausentes));
+                    return;
+                }
+
+                Resolvidos resolvidos = new Resolvidos();
+                List<Linha> lote = new ArrayList<>(TAMANHO_CHUNK);
+                List<String> campos;
+                while ((campos = leitor.proximo()) != null) {
+                    if (campos.size() == 1 && campos.get(0).isBlank()) {
+                        continue;
+                    }
+                    importacao.linhasLidas.incrementAndGet();
+                    try {
+                        lote.add(Linha.de(leitor.linha(), campos, colunas));
+                    } catch (IllegalArgumentException e) {
+                        importacao.erro(leitor.linha(), e.getMessage());
+                    }
+                    if (lote.size() == TAMANHO_CHUNK) {
+                        gravar(importacao, lote, resolvidos);
+                        lote.clear();
+                    }
+                }
+                if (!lote.isEmpty()) {
+                    gravar(importacao, lote, resolvidos);
+                }
+            }
+            importacao.concluir();
+        } catch (Exception e) {
+            logger.error("Importação " + importacao.id + " interrompida", e);
+            importacao.falhar(e.getMessage());
+        } finally {
+            apagar(arquivo);
+        }
+    }
+
+    // Lê a primeira linha só para descobrir o separador e volta o reader para o início
+    private String espiarCabecalho(BufferedReader reader) throws IOException {
+        reader.mark(1 << 15);
+        String linha = reader.readLine();
+        reader.reset();
+        return linha != null ? linha : "";
+    }
+
+    private Map<String, Integer> indexar(List<String> cabecalho) {
+        Map<String, Integer> colunas = new HashMap<>();
+        if (cabecalho == null) {
+            return colunas;
+        }
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String nome = cabecalho.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            colunas.putIfAbsent(nome, i);
+        }
+        return colunas;
+    }
+
+    private void gravar(Importacao importacao, List<Linha> lote, Resolvidos resolvidos) {
+        List<ErroImportacaoDto> recusadas = new ArrayList<>();
+        try {
+            Resolvidos novos = transactionTemplate.execute(status -> gravarLote(lote, resolvidos, recusadas));
+            resolvidos.incorporar(novos);
+            recusadas.forEach(erro -> importacao.erro(erro.linha(), erro.mensagem()));
+            importacao.importadas.addAndGet(lote.size() - recusadas.size());
+        } catch (Exception e) {
+            // O lote inteiro voltou; os ids criados nele não entram em "resolvidos"
+            String causa = "Lote não gravado: " + e.getMessage();
+            lote.forEach(linha -> importacao.erro(linha.numero(), causa));
+        }
+    }
+
+    private Resolvidos gravarLote(List<Linha> lote, Resolvidos resolvidos, List<ErroImportacaoDto> recusadas) {
+        Resolvidos novos = new Resolvidos();
+
+        // Donos: um select para os e-mails ainda não vistos e um saveAll para os que não existem.
+        // Os e-mails da linha já vêm em minúsculas; a consulta compara lower(email) do lado do banco.
+        Set<String> emails = lote.stream().map(Linha::proprietarioEmail)
+                .filter(email -> resolvidos.usuario(email) == null)
+                .collect(Collectors.toSet());
+        if (!emails.isEmpty()) {
+            usuarioRepository.findByEmailMinusculoIn(emails).forEach(u -> novos.usuarios.put(u.getEmail().toLowerCase(Locale.ROOT), u.getId()));
+            Map<String, Usuario> criar = new LinkedHashMap<>();
+            for (Linha linha : lote) {
+                if (emails.contains(linha.proprietarioEmail()) && !novos.usuarios.containsKey(linha.proprietarioEmail())) {
+                    criar.computeIfAbsent(linha.proprietarioEmail(), email -> {
+                        Usuario usuario = new Usuario();
+                        usuario.setEmail(email);
+                        usuario.setNome(linha.proprietarioNome() != null ? linha.proprietarioNome() : email);
+                        return usuario;
+                    });
+                }
+            }
+            usuarioService.saveAll(criar.values()).forEach(u -> novos.usuarios.put(u.getEmail(), u.getId()));
+        }
+
+        // Lava-jatos: mesmo esquema, pelo CNPJ
+        Set<String> cnpjs = lote.stream().map(Linha::cnpj)
+                .filter(cnpj -> resolvidos.lavaJato(cnpj) == null)
+                .collect(Collectors.toSet());
+        if (!cnpjs.isEmpty()) {
+            lavaJatoRepository.findByCnpjIn(cnpjs).forEach(l -> novos.lavaJatos.put(l.getCnpj(), l.getId()));
+        }
+
+        // Cada dono tem um lava-jato só (uk_lava_jato_usuario). Vale o primeiro CNPJ visto, no banco
+        // ou antes no arquivo; uma linha que criaria um segundo é recusada sozinha, sem derrubar o lote.
+        Set<Long> donos = lote.stream().map(linha -> dono(linha, resolvidos, novos))
+                .filter(donoId -> resolvidos.cnpjDoDono(donoId) == null)
+                .collect(Collectors.toSet());
+        if (!donos.isEmpty()) {
+            lavaJatoRepository.findByProprietarioIdIn(donos)
+                    .forEach(l -> novos.cnpjPorDono.put(l.getProprietario().getId(), l.getCnpj()));
+        }
+        Map<String, LavaJato> criar = new LinkedHashMap<>();
+        List<Linha> aceitas = new ArrayList<>(lote.size());
+        for (Linha linha : lote) {
+            if (resolvidos.lavaJato(linha.cnpj()) != null || novos.lavaJatos.containsKey(linha.cnpj())
+                    || criar.containsKey(linha.cnpj())) {
+                aceitas.add(linha);
+                continue;
+            }
+            Long donoId = dono(linha, resolvidos, novos);
+            String cnpjAtual = Optional.ofNullable(resolvidos.cnpjDoDono(donoId)).orElseGet(() -> novos.cnpjPorDono.get(donoId));
+            if (cnpjAtual != null) {
+                recusadas.add(new ErroImportacaoDto(linha.numero(),
+                        "Proprietário " + linha.proprietarioEmail() + " já tem o lava-jato de CNPJ " + cnpjAtual));
+                continue;
+            }
+            LavaJato lavaJato = new LavaJato(null, linha.nome(), linha.endereco(), linha.telefone(),
+                    linha.email(), linha.cnpj(), usuarioRepository.getReferenceById(donoId));
+            lavaJato.setLatitude(linha.latitude());
+            lavaJato.setLongitude(linha.longitude());
+            criar.put(linha.cnpj(), lavaJato);
+            novos.cnpjPorDono.put(donoId, linha.cnpj());
+            aceitas.add(linha);
+        }
+        if (!criar.isEmpty()) {
+            lavaJatoService.saveAll(criar.values()).forEach(l -> novos.lavaJatos.put(l.getCnpj(), l.getId()));
+        }
+
+        if (aceitas.isEmpty()) {
+            return novos;
+        }
+
+        // Serviços: o mesmo tipo no mesmo lava-jato atualiza descrição e valor em vez de duplicar
+        Map<String, Long> lavaJatoPorCnpj = new HashMap<>();
+        for (Linha linha : aceitas) {
+            Long id = resolvidos.lavaJato(linha.cnpj());
+            lavaJatoPorCnpj.put(linha.cnpj(), id != null ? id : novos.lavaJatos.get(linha.cnpj()));
+        }
+        Map<String, Servico> servicos = new LinkedHashMap<>();
+        servicoRepository.findDosLavaJatos(Set.copyOf(lavaJatoPorCnpj.values()))
+                .forEach(s -> servicos.put(chaveServico(s.getLavaJato().getId(), s.getTipo()), s));
+        Set<Servico> gravar = new LinkedHashSet<>();
+        for (Linha linha : aceitas) {
+            Long lavaJatoId = lavaJatoPorCnpj.get(linha.cnpj());
+            Servico servico = servicos.computeIfAbsent(chaveServico(lavaJatoId, linha.servicoTipo()),
+                    chave -> new Servico(null, linha.servicoTipo(), null, lavaJatoRepository.getReferenceById(lavaJatoId)));
+            servico.setDescricao(linha.servicoDescricao());
+            servico.setValor(linha.servicoValor());
+            gravar.add(servico);
+        }
+        servicoService.saveAll(gravar);
+        return novos;
+    }
+
+    private static Long dono(Linha linha, Resolvidos resolvidos, Resolvidos novos) {
+        Long id = resolvidos.usuario(linha.proprietarioEmail());
+        return id != null ? id : novos.usuarios.get(linha.proprietarioEmail());
+    }
+
+    private static String chaveServico(Long lavaJatoId, String tipo) {
+        return lavaJatoId + "|" + tipo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível apagar " + arquivo, e);
+        }
+    }
+
+    // Ids já gravados: e-mail do dono -> usuário, CNPJ -> lava-jato, dono -> CNPJ do seu lava-jato
+    private static final class Resolvidos {
+
+        private final Map<String, Long> usuarios = new HashMap<>();
+
+        private final Map<String, Long> lavaJatos = new HashMap<>();
+
+        private final Map<Long, String> cnpjPorDono = new HashMap<>();
+
+        private Long usuario(String email) {
+            return usuarios.get(email);
+        }
+
+        private Long lavaJato(String cnpj) {
+            return lavaJatos.get(cnpj);
+        }
+
+        private String cnpjDoDono(Long usuarioId) {
+            return cnpjPorDono.get(usuarioId);
+        }
+
+        private void incorporar(Resolvidos novos) {
+            usuarios.putAll(novos.usuarios);
+            lavaJatos.putAll(novos.lavaJatos);
+            cnpjPorDono.putAll(novos.cnpjPorDono);
+        }
+    }
+
+    private record Linha(long numero, String cnpj, String nome, String endereco, String telefone, String email,
+                         Double latitude, Double longitude, String proprietarioEmail, String proprietarioNome,
+                         String servicoTipo, String servicoDescricao, Double servicoValor) {
+
+        private static Linha de(long numero, List<String> campos, Map<String, Integer> colunas) {
+            String cnpj = obrigatorio(campos, colunas, "cnpj");
+            String proprietarioEmail = obrigatorio(campos, colunas, "proprietario_email").toLowerCase(Locale.ROOT);
+            if (!proprietarioEmail.contains("@")) {
+                throw new IllegalArgumentException("proprietario_email inválido: " + proprietarioEmail);
+            }
+            Double latitude = decimal(campos, colunas, "latitude");
+            Double longitude = decimal(campos, colunas, "longitude");
+            if ((latitude == null) != (longitude == null)
+                    || latitude != null && (Math.abs(latitude) > 90 || Math.abs(longitude) > 180)) {
+                throw new IllegalArgumentException("Coordenadas inválidas");
+            }
+            Double valor = decimal(campos, colunas, "servico_valor");
+            if (valor == null || valor < 0) {
+                throw new IllegalArgumentException("servico_valor inválido");
+            }
+            return new Linha(numero, cnpj, obrigatorio(campos, colunas, "nome"),
+                    opcional(campos, colunas, "endereco"), opcional(campos, colunas, "telefone"),
+                    opcional(campos, colunas, "email"), latitude, longitude, proprietarioEmail,
+                    opcional(campos, colunas, "proprietario_nome"), obrigatorio(campos, colunas, "servico_tipo"),
+                    opcional(campos, colunas, "servico_descricao"), valor);
+        }
+
+        private static String opcional(List<String> campos, Map<String, Integer> colunas, String coluna) {
+            Integer indice = colunas.get(coluna);
+            if (indice == null || indice >= campos.size()) {
+                return null;
+            }
+            String valor = campos.get(indice).trim();
+            return valor.isEmpty() ? null : valor;
+        }
+
+        private static String obrigatorio(List<String> campos, Map<String, Integer> colunas, String coluna) {
+            String valor = opcional(campos, colunas, coluna);
+            if (valor == null) {
+                throw new IllegalArgumentException("Coluna " + coluna + " vazia");
+            }
+            return valor;
+        }
+
+        // Aceita 80.50 e 80,50
+        private static Double decimal(List<String> campos, Map<String, Integer> colunas, String coluna) {
+            String valor = opcional(campos, colunas, coluna);
+            if (valor == null) {
+                return null;
+            }
+            try {
+                return Double.valueOf(valor.indexOf('.') < 0 ? valor.replace(',', '.') : valor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(coluna + " não é numérico: " + valor);
+            }
+        }
+    }
+
+    private static final class Importacao {
+
+        private final String id;
+
+        private final String arquivo;
+
+        private final Instant inicio = Instant.now();
+
+        private final AtomicLong linhasLidas = new AtomicLong();
+
+        private final AtomicLong importadas = new AtomicLong();
+
+        private final AtomicLong comErro = new AtomicLong();
+
+        private final List<ErroImportacaoDto> erros = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile String status = "PENDENTE";
+
+        private volatile Instant fim;
+
+        private volatile String mensagem;
+
+        private Importacao(String id, String arquivo) {
+            this.id = id;
+            this.arquivo = arquivo;
+        }
+
+        // Guarda só os primeiros MAXIMO_ERROS; o total continua em comErro
+        private void erro(long linha, String mensagem) {
+            if (comErro.incrementAndGet() <= MAXIMO_ERROS) {
+                erros.add(new ErroImportacaoDto(linha, mensagem));
+            }
+        }
+
+        private void concluir() {
+            fim = Instant.now();
+            status = "CONCLUIDA";
+        }
+
+        private void falhar(String mensagem) {
+            this.mensagem = mensagem;
+            fim = Instant.now();
+            status = "FALHOU";
+        }
+
+        private ImportacaoDto dto() {
+            List<ErroImportacaoDto> copia;
+            synchronized (erros) {
+                copia = List.copyOf(erros);
+            }
+            return new ImportacaoDto(id, arquivo, status, linhasLidas.get(), importadas.get(), comErro.get(),
+                    inicio, fim, mensagem, copia);
+        }
+    }
+}
@@ -1,4 +1,184 @@
 package com.lavexpress.laveexpress.services;
 
-public class LavaJatoService {
+import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.CacheConfig;
+import com.lavexpress.laveexpress.config.LeituraReplica;
+import com.lavexpress.laveexpress.dtos.LavaJatoBuscaDto;
+import com.lavexpress.laveexpress.dtos.LavaJatoDto;
+import com.lavexpress.laveexpress.dtos.LavaJatoProximoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.mappers.LavaJatoMapper;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.security.UsuarioAutenticado;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class LavaJatoService extends BaseService<LavaJato> {
+
+    private static final double RAIO_MAXIMO_KM = 100;
+
+    private static final int MAXIMO_RESULTADOS = 100;
+
+    // LISTEN/NOTIFY: id do lava-jato criado, alterado ou excluído em outra instância
+    private static final String CANAL_LAVAJATO = "lava_jato";
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final LavaJatoMapper mapper;
+
+    private final DisponibilidadeIndex disponibilidadeIndex;
+
+    private final LocalizacaoIndex localizacaoIndex;
+
+    private final BuscaIndex buscaIndex;
+
+    private final CacheManager cacheManager;
+
+    private final NotificacoesBanco notificacoesBanco;
+
+    public LavaJatoService(LavaJatoRepository lavaJatoRepository,
+                           LavaJatoMapper mapper,
+                           DisponibilidadeIndex disponibilidadeIndex,
+                           LocalizacaoIndex localizacaoIndex,
+                           BuscaIndex buscaIndex,
+                           CacheManager cacheManager,
+                           NotificacoesBanco notificacoesBanco) {
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.mapper = mapper;
+        this.disponibilidadeIndex = disponibilidadeIndex;
+        this.localizacaoIndex = localizacaoIndex;
+        this.buscaIndex = buscaIndex;
+        this.cacheManager = cacheManager;
+        this.notificacoesBanco = notificacoesBanco;
+        notificacoesBanco.ouvir(CANAL_LAVAJATO, Long.class, this::aplicarRemoto);
+    }
+
+    @Override
+    public BaseRepository<LavaJato> getRepository() {
+        return lavaJatoRepository;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.LAVAJATOS, unless = "#result == null")
+    @LeituraReplica
+    public Optional<LavaJatoDto> buscar(Long id) {
+        return lavaJatoRepository.findById(id).map(mapper::entityToDto);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.LAVAJATOS_POR_TIPO, key = "#tipo.trim().toLowerCase()")
+    @LeituraReplica
+    public List<LavaJatoDto> listarPorTipo(String tipo) {
+        return lavaJatoRepository.findOferecemTipo(tipo.trim().toLowerCase(Locale.ROOT)).stream()
+                .map(mapper::entityToDto)
+                .toList();
+    }
+
+    @LeituraReplica
+    public List<LavaJatoProximoDto> proximos(double latitude, double longitude, double raioKm, int k, String tipo) {
+        var resultados = localizacaoIndex.proximos(latitude, longitude,
+                Math.min(raioKm, RAIO_MAXIMO_KM), Math.max(1, Math.min(k, MAXIMO_RESULTADOS)), tipo);
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, LavaJatoDto> lavaJatos = detalhes(resultados.stream().map(LocalizacaoIndex.Resultado::lavaJatoId).toList());
+        return resultados.stream()
+                .filter(resultado -> lavaJatos.containsKey(resultado.lavaJatoId()))
+                .map(resultado -> new LavaJatoProximoDto(lavaJatos.get(resultado.lavaJatoId()), resultado.distanciaKm()))
+                .toList();
+    }
+
+    @LeituraReplica
+    public List<LavaJatoBuscaDto> buscarTexto(String consulta, int limite) {
+        var resultados = buscaIndex.buscar(consulta, Math.max(1, Math.min(limite, MAXIMO_RESULTADOS)));
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, LavaJatoDto> lavaJatos = detalhes(resultados.stream().map(BuscaIndex.Resultado::lavaJatoId).toList());
+        return resultados.stream()
+                .filter(resultado -> lavaJatos.containsKey(resultado.lavaJatoId()))
+                .map(resultado -> new LavaJatoBuscaDto(lavaJatos.get(resultado.lavaJatoId()), resultado.relevancia()))
+                .toList();
+    }
+
+    // Dono recém-cadastrado pode ainda não estar na réplica: lê do primário
+    @Transactional
+    public void verificarProprietario(Long lavaJatoId, UsuarioAutenticado usuario) {
+        if (usuario == null || !lavaJatoRepository.existsByIdAndProprietarioId(lavaJatoId, usuario.id())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Só o proprietário do lava-jato tem acesso.");
+        }
+    }
+
+    // Os detalhes saem do cache; só os ausentes vão ao banco, em um único findAllById
+    private Map<Long, LavaJatoDto> detalhes(List<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.LAVAJATOS);
+        Map<Long, LavaJatoDto> lavaJatos = new HashMap<>();
+        List<Long> ausentes = new ArrayList<>();
+        for (Long id : ids) {
+            LavaJatoDto dto = cache.get(id, LavaJatoDto.class);
+            if (dto != null) {
+                lavaJatos.put(dto.id(), dto);
+            } else {
+                ausentes.add(id);
+            }
+        }
+        if (!ausentes.isEmpty()) {
+            for (LavaJato lavaJato : lavaJatoRepository.findAllById(ausentes)) {
+                LavaJatoDto dto = mapper.entityToDto(lavaJato);
+                cache.put(dto.id(), dto);
+                lavaJatos.put(dto.id(), dto);
+            }
+        }
+        return lavaJatos;
+    }
+
+    @Override
+    protected void aposSalvar(LavaJato lavaJato) {
+        notificacoesBanco.publicar(CANAL_LAVAJATO, lavaJato.getId());
+        aposCommit(() -> atualizarLocal(lavaJato));
+    }
+
+    @Override
+    protected void aposExcluir(LavaJato lavaJato) {
+        Long id = lavaJato.getId();
+        notificacoesBanco.publicar(CANAL_LAVAJATO, id);
+        aposCommit(() -> removerLocal(id));
+    }
+
+    // O aviso leva só o id: o estado atual vem do banco, e a ausência significa exclusão
+    private void aplicarRemoto(Long id) {
+        lavaJatoRepository.findById(id).ifPresentOrElse(this::atualizarLocal, () -> removerLocal(id));
+    }
+
+    private void atualizarLocal(LavaJato lavaJato) {
+        invalidarCaches(lavaJato.getId());
+        disponibilidadeIndex.atualizarGrade(lavaJato);
+        localizacaoIndex.atualizar(lavaJato);
+        buscaIndex.atualizar(lavaJato);
+    }
+
+    private void removerLocal(Long id) {
+        invalidarCaches(id);
+        disponibilidadeIndex.removerLavaJato(id);
+        localizacaoIndex.remover(id);
+        buscaIndex.remover(id);
+    }
+
+    private void invalidarCaches(Long id) {
+        cacheManager.getCache(CacheConfig.LAVAJATOS).evict(id);
+        cacheManager.getCache(CacheConfig.LAVAJATOS_POR_TIPO).clear();
+    }
 }
@@ -0,0 +1,107 @@
+package com.lavexpress.laveexpress.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Leitor de CSV (RFC 4180) registro a registro: aceita campos entre aspas com separador, aspas
+// duplicadas e quebras de linha dentro. Só o registro atual fica em memória.
+public class LeitorCsv implements Closeable {
+
+    private static final int TAMANHO_MAXIMO_CAMPO = 10_000;
+
+    private final Reader reader;
+
+    private final char separador;
+
+    private int pendente = -2;
+
+    private long proximaLinha = 1;
+
+    private long linha;
+
+    public LeitorCsv(Reader reader, char separador) {
+        this.reader = reader;
+        this.separador = separador;
+    }
+
+    // null no fim do arquivo
+    public List<String> proximo() throws IOException {
+        int c = ler();
+        if (c == -1) {
+            return null;
+        }
+        linha = proximaLinha;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        while (true) {
+            if (c == -1) {
+                if (entreAspas) {
+                    throw new IOException("Aspas não fechadas no registro da linha " + linha);
+                }
+                campos.add(campo.toString());
+                return campos;
+            }
+            if (c == '\n') {
+                proximaLinha++;
+            }
+            if (entreAspas) {
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        pendente = seguinte;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int seguinte = ler();
+                    if (seguinte == '\n') {
+                        proximaLinha++;
+                    } else {
+                        pendente = seguinte;
+                    }
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            if (campo.length() > TAMANHO_MAXIMO_CAMPO) {
+                throw new IOException("Campo com mais de " + TAMANHO_MAXIMO_CAMPO + " caracteres no registro da linha " + linha);
+            }
+            c = ler();
+        }
+    }
+
+    // Linha do arquivo em que começa o último registro devolvido
+    public long linha() {
+        return linha;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int ler() throws IOException {
+        if (pendente != -2) {
+            int c = pendente;
+            pendente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,245 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.TipoServicoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Grade regular de células de latitude/longitude: uma busca só calcula Haversine para os
+// lava-jatos das células ao redor do ponto, em anéis crescentes até cobrir o raio.
+// Mudanças feitas em outras instâncias chegam pelo aviso do LavaJatoService; a reconstrução
+// periódica alcança o resto (catálogo de serviços, avisos perdidos). Como no BuscaIndex, o índice
+// novo é montado à parte, recebe as alterações feitas durante a montagem e entra de uma vez.
+@Component
+public class LocalizacaoIndex {
+
+    private static final double TAMANHO_CELULA_GRAUS = 0.05;
+
+    private static final double KM_POR_GRAU = 111.32;
+
+    private static final double RAIO_TERRA_KM = 6371.0088;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final ServicoRepository servicoRepository;
+
+    private final AtomicReference<Indice> atual = new AtomicReference<>(new Indice());
+
+    // Guarda só trabalho em memória: aplicar uma alteração, enfileirar para replay e a troca
+    private final Object escrita = new Object();
+
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+
+    // Alterações feitas durante uma reconstrução; null fora dela
+    private List<Consumer<Indice>> pendentes;
+
+    public LocalizacaoIndex(LavaJatoRepository lavaJatoRepository, ServicoRepository servicoRepository) {
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.servicoRepository = servicoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lavexpress.localizacao.reconciliacao-ms:600000}",
+            fixedDelayString = "${lavexpress.localizacao.reconciliacao-ms:600000}")
+    public void reconstruir() {
+        if (!reconstrucao.tryLock()) {
+            return;
+        }
+        try {
+            synchronized (escrita) {
+                pendentes = new ArrayList<>();
+            }
+            Indice novo = new Indice();
+            try {
+                Map<Long, Set<String>> tipos = new HashMap<>();
+                for (TipoServicoDto tipo : servicoRepository.findTipos()) {
+                    tipos.computeIfAbsent(tipo.lavaJatoId(), id -> new HashSet<>()).add(normalizar(tipo.tipo()));
+                }
+                for (LavaJato lavaJato : lavaJatoRepository.findAll()) {
+                    novo.indexar(lavaJato.getId(), lavaJato.getLatitude(), lavaJato.getLongitude(),
+                            tipos.getOrDefault(lavaJato.getId(), Set.of()));
+                }
+                synchronized (escrita) {
+                    pendentes.forEach(alteracao -> alteracao.accept(novo));
+                    atual.set(novo);
+                }
+            } finally {
+                synchronized (escrita) {
+                    pendentes = null;
+                }
+            }
+            logger.info("Índice de localização reconstruído: " + novo.pontos.size() + " lava-jatos em "
+                    + novo.celulas.size() + " células");
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    public void atualizar(LavaJato lavaJato) {
+        Long id = lavaJato.getId();
+        Double latitude = lavaJato.getLatitude();
+        Double longitude = lavaJato.getLongitude();
+        if (latitude == null || longitude == null) {
+            remover(id);
+            return;
+        }
+        // Fora do índice (novo ou sem coordenadas até agora): os tipos de serviço vêm do banco,
+        // já que atualizarTipos não guarda nada para quem não está indexado. A leitura fica fora do lock.
+        Ponto anterior = atual.get().pontos.get(id);
+        Set<String> tipos = anterior != null ? anterior.tipos()
+                : servicoRepository.findTiposDoLavaJato(id).stream()
+                        .map(LocalizacaoIndex::normalizar).collect(Collectors.toUnmodifiableSet());
+        alterar(indice -> indice.indexar(id, latitude, longitude, tipos));
+    }
+
+    public void atualizarTipos(Long lavaJatoId, Collection<String> tipos) {
+        Set<String> normalizados = tipos.stream().map(LocalizacaoIndex::normalizar).collect(Collectors.toUnmodifiableSet());
+        alterar(indice -> {
+            Ponto ponto = indice.pontos.get(lavaJatoId);
+            if (ponto != null) {
+                indice.pontos.put(lavaJatoId, new Ponto(lavaJatoId, ponto.latitude(), ponto.longitude(), ponto.celula(), normalizados));
+            }
+        });
+    }
+
+    public void remover(Long lavaJatoId) {
+        alterar(indice -> indice.remover(lavaJatoId));
+    }
+
+    private void alterar(Consumer<Indice> alteracao) {
+        synchronized (escrita) {
+            alteracao.accept(atual.get());
+            if (pendentes != null) {
+                pendentes.add(alteracao);
+            }
+        }
+    }
+
+    // Retorna até k lava-jatos dentro do raio, do mais próximo para o mais distante
+    public List<Resultado> proximos(double latitude, double longitude, double raioKm, int k, String tipo) {
+        Indice indice = atual.get();
+        String tipoNormalizado = tipo == null || tipo.isBlank() ? null : normalizar(tipo);
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(Comparator.comparingDouble(Resultado::distanciaKm).reversed());
+
+        int linha = indice(latitude);
+        int coluna = indice(longitude);
+        double kmPorCelula = TAMANHO_CELULA_GRAUS * KM_POR_GRAU * Math.max(Math.cos(Math.toRadians(Math.abs(latitude) + TAMANHO_CELULA_GRAUS)), 0.01);
+        int aneis = (int) Math.ceil(raioKm / kmPorCelula) + 1;
+
+        for (int anel = 0; anel <= aneis; anel++) {
+            // Nenhum ponto do anel atual ou dos externos fica a menos de (anel - 1) células do centro
+            if (melhores.size() == k && melhores.peek().distanciaKm() <= (anel - 1) * kmPorCelula) {
+                break;
+            }
+            for (int dl = -anel; dl <= anel; dl++) {
+                for (int dc = -anel; dc <= anel; dc++) {
+                    if (Math.abs(dl) != anel && Math.abs(dc) != anel) {
+                        continue;
+                    }
+                    Set<Long> ids = indice.celulas.get(chave(linha + dl, coluna + dc));
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        Ponto ponto = indice.pontos.get(id);
+                        if (ponto == null || (tipoNormalizado != null && !ponto.tipos().contains(tipoNormalizado))) {
+                            continue;
+                        }
+                        double distancia = haversine(latitude, longitude, ponto.latitude(), ponto.longitude());
+                        if (distancia > raioKm) {
+                            continue;
+                        }
+                        if (melhores.size() < k) {
+                            melhores.add(new Resultado(id, distancia));
+                        } else if (distancia < melhores.peek().distanciaKm()) {
+                            melhores.poll();
+                            melhores.add(new Resultado(id, distancia));
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Resultado> resultado = new ArrayList<>(melhores);
+        resultado.sort(Comparator.comparingDouble(Resultado::distanciaKm));
+        return resultado;
+    }
+
+    private static int indice(double graus) {
+        return (int) Math.floor(graus / TAMANHO_CELULA_GRAUS);
+    }
+
+    private static long chave(int linha, int coluna) {
+        return ((long) linha << 32) | (coluna & 0xffffffffL);
+    }
+
+    private static String normalizar(String tipo) {
+        return tipo == null ? "" : tipo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public record Resultado(Long lavaJatoId, double distanciaKm) {
+    }
+
+    // As buscas leem sem lock enquanto as alterações são aplicadas, por isso os mapas concorrentes
+    private static final class Indice {
+
+        private final Map<Long, Set<Long>> celulas = new ConcurrentHashMap<>();
+
+        private final Map<Long, Ponto> pontos = new ConcurrentHashMap<>();
+
+        private void indexar(Long id, Double latitude, Double longitude, Set<String> tipos) {
+            remover(id);
+            if (latitude == null || longitude == null) {
+                return;
+            }
+            long celula = chave(indice(latitude), indice(longitude));
+            pontos.put(id, new Ponto(id, latitude, longitude, celula, tipos));
+            celulas.computeIfAbsent(celula, c -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+
+        private void remover(Long lavaJatoId) {
+            Ponto ponto = pontos.remove(lavaJatoId);
+            if (ponto != null) {
+                Set<Long> ids = celulas.get(ponto.celula());
+                if (ids != null) {
+                    ids.remove(lavaJatoId);
+                }
+            }
+        }
+    }
+
+    private record Ponto(Long id, double latitude, double longitude, long celula, Set<String> tipos) {
+    }
+}
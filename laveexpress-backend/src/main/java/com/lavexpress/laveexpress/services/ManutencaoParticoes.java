@@ -0,0 +1,122 @@
+package com.lavexpress.laveexpress.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Partições mensais de agendamento (criadas pela V2): mantém "meses-a-frente" meses futuros
+// criados e tira da tabela os meses mais antigos que "retencao-meses". Com schema-arquivo
+// preenchido a partição só é movida para lá (para dump/exclusão manual); vazio, é apagada.
+// resumo_diario não é tocado, então o painel continua mostrando os meses arquivados.
+// Depende do EntityManagerFactory para rodar depois das migrações e antes de aceitar requests.
+@Component
+public class ManutencaoParticoes implements InitializingBean {
+
+    private static final Pattern NOME_PARTICAO = Pattern.compile("agendamento_p(\\d{4})_(\\d{2})");
+
+    // Serializa a manutenção entre instâncias
+    private static final long LOCK_MANUTENCAO = 0x4c4a5f5041525449L;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int mesesAFrente;
+
+    private final int retencaoMeses;
+
+    private final String schemaArquivo;
+
+    public ManutencaoParticoes(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${lavexpress.particoes.meses-a-frente:12}") int mesesAFrente,
+                               @Value("${lavexpress.particoes.retencao-meses:24}") int retencaoMeses,
+                               @Value("${lavexpress.particoes.schema-arquivo:arquivo}") String schemaArquivo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mesesAFrente = mesesAFrente;
+        this.retencaoMeses = retencaoMeses;
+        this.schemaArquivo = schemaArquivo.trim();
+        if (!this.schemaArquivo.isEmpty() && !this.schemaArquivo.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("lavexpress.particoes.schema-arquivo inválido: " + schemaArquivo);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(banco)) {
+            manter();
+        }
+    }
+
+    @Scheduled(cron = "0 15 0 * * *")
+    public void manter() {
+        // Falha aqui impede a subida: sem a partição do mês, nenhuma reserva é gravada
+        transactionTemplate.executeWithoutResult(status -> {
+            travar();
+            // Um mês de folga: na virada do mês o limite do AgendamentoService anda antes deste job
+            LocalDate mes = YearMonth.now().atDay(1);
+            for (int i = 0; i <= mesesAFrente + 1; i++) {
+                jdbcTemplate.queryForObject("select criar_particao_agendamento(?)", String.class, mes.plusMonths(i));
+            }
+        });
+        if (retencaoMeses <= 0) {
+            return;
+        }
+        YearMonth limite = YearMonth.now().minusMonths(retencaoMeses);
+        for (String particao : particoes()) {
+            Matcher matcher = NOME_PARTICAO.matcher(particao);
+            if (matcher.matches()
+                    && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))).isBefore(limite)) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> arquivar(particao));
+                } catch (RuntimeException e) {
+                    logger.warn("Partição " + particao + " não arquivada, nova tentativa amanhã: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<String> particoes() {
+        return jdbcTemplate.queryForList(
+                "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                        "where i.inhparent = 'agendamento'::regclass order by c.relname", String.class);
+    }
+
+    private void arquivar(String particao) {
+        travar();
+        // O detach trava agendamento por um instante; sem ficar na fila atrás de transações longas
+        jdbcTemplate.execute("set local lock_timeout = '5s'");
+        jdbcTemplate.execute("alter table agendamento detach partition " + particao);
+        if (schemaArquivo.isEmpty()) {
+            jdbcTemplate.execute("drop table " + particao);
+            logger.info("Partição " + particao + " removida (retenção de " + retencaoMeses + " meses)");
+        } else {
+            jdbcTemplate.execute("create schema if not exists " + schemaArquivo);
+            jdbcTemplate.execute("alter table " + particao + " set schema " + schemaArquivo);
+            logger.info("Partição " + particao + " arquivada em " + schemaArquivo);
+        }
+    }
+
+    private void travar() {
+        jdbcTemplate.queryForObject("select pg_advisory_xact_lock(?)", Object.class, LOCK_MANUTENCAO);
+    }
+}
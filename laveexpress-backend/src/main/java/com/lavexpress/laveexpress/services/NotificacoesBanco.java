@@ -0,0 +1,175 @@
+package com.lavexpress.laveexpress.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Avisos entre instâncias via LISTEN/NOTIFY do PostgreSQL. publicar() roda na transação de quem
+// chama, então o aviso só sai no commit (e some no rollback). Cada instância mantém uma conexão
+// própria, fora do pool, escutando os canais; as mensagens da própria instância são ignoradas,
+// porque ela já aplicou a mudança localmente no aposCommit. Sem PostgreSQL (perfil jmh, H2) é no-op.
+// Não há replay: o que se perde com a conexão caída é corrigido pela reconciliação de cada índice.
+@Component
+public class NotificacoesBanco {
+
+    // pg_notify aceita até 8000 bytes de payload
+    private static final int TAMANHO_MAXIMO = 7900;
+
+    private static final int ESPERA_MS = 1000;
+
+    private static final long ESPERA_RECONEXAO_MS = 5000;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final String origem = UUID.randomUUID().toString();
+
+    private final Map<String, List<Consumer<JsonNode>>> ouvintes = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final boolean habilitado;
+
+    private volatile boolean ativo;
+
+    private Thread thread;
+
+    public NotificacoesBanco(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+        this.habilitado = dataSourceProperties.determineUrl() != null
+                && dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+    }
+
+    // Registrar antes da aplicação subir: os LISTEN são feitos ao abrir a conexão
+    public <T> void ouvir(String canal, Class<T> tipo, Consumer<T> ouvinte) {
+        if (!canal.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Canal inválido: " + canal);
+        }
+        if (thread != null) {
+            throw new IllegalStateException("Ouvintes devem ser registrados antes da aplicação subir");
+        }
+        ouvintes.computeIfAbsent(canal, c -> new CopyOnWriteArrayList<>()).add(dados -> {
+            try {
+                ouvinte.accept(objectMapper.treeToValue(dados, tipo));
+            } catch (JsonProcessingException e) {
+                logger.warn("Aviso inválido no canal " + canal + ": " + e.getMessage());
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publicar(String canal, Object dados) {
+        if (!habilitado) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(Map.of("origem", origem, "dados", dados));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Aviso não serializável para o canal " + canal, e);
+        }
+        if (payload.length() > TAMANHO_MAXIMO) {
+            // As outras instâncias ficam desatualizadas até a próxima reconciliação
+            logger.warn("Aviso de " + payload.length() + " bytes no canal " + canal + " descartado");
+            return;
+        }
+        jdbcTemplate.queryForObject("select pg_notify(?, ?)", String.class, canal, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (!habilitado || ouvintes.isEmpty() || thread != null) {
+            return;
+        }
+        ativo = true;
+        thread = new Thread(this::escutar, "notificacoes-banco");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void encerrar() {
+        ativo = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void escutar() {
+        while (ativo) {
+            try (Connection conexao = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = conexao.createStatement()) {
+                    for (String canal : ouvintes.keySet()) {
+                        statement.execute("listen " + canal);
+                    }
+                }
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                while (ativo) {
+                    PGNotification[] avisos = pg.getNotifications(ESPERA_MS);
+                    if (avisos != null) {
+                        for (PGNotification aviso : avisos) {
+                            entregar(aviso.getName(), aviso.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!ativo) {
+                    return;
+                }
+                logger.warn("Conexão de LISTEN perdida; nova tentativa em " + ESPERA_RECONEXAO_MS + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(ESPERA_RECONEXAO_MS);
+                } catch (InterruptedException interrompido) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void entregar(String canal, String payload) {
+        try {
+            JsonNode aviso = objectMapper.readTree(payload);
+            if (origem.equals(aviso.path("origem").asText())) {
+                return;
+            }
+            for (Consumer<JsonNode> ouvinte : ouvintes.getOrDefault(canal, List.of())) {
+                try {
+                    ouvinte.accept(aviso.path("dados"));
+                } catch (RuntimeException e) {
+                    logger.warn("Falha ao aplicar aviso do canal " + canal, e);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("Aviso ilegível no canal " + canal + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.config.LeituraReplica;
+import com.lavexpress.laveexpress.dtos.ResumoPeriodoDto;
+import com.lavexpress.laveexpress.dtos.ResumoTipoDto;
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.entities.ResumoDiario;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ResumoDiarioRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+// Receita e ocupação do painel lidas de resumo_diario (um registro por lava-jato/dia/tipo),
+// que é atualizado na mesma transação de cada reserva e cancelamento.
+@Service
+public class ResumoService {
+
+    // Serializa carga inicial e recálculo entre instâncias
+    private static final long LOCK_RESUMO = 0x4c4a5f5245534d4fL;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final ResumoDiarioRepository resumoDiarioRepository;
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResumoService(ResumoDiarioRepository resumoDiarioRepository, LavaJatoRepository lavaJatoRepository,
+                         JdbcTemplate jdbcTemplate) {
+        this.resumoDiarioRepository = resumoDiarioRepository;
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // sinal 1 na reserva, -1 no cancelamento; roda dentro da transação de quem chamou
+    @Transactional
+    public void acumular(Agendamento agendamento, int sinal) {
+        resumoDiarioRepository.acumular(agendamento.getLavaJato().getId(), agendamento.getHorario().toLocalDate(),
+                Objects.requireNonNullElse(agendamento.getTipo(), ""), sinal,
+                sinal * Objects.requireNonNullElse(agendamento.getValor(), 0.0));
+    }
+
+    // Primeira subida com agendamentos já existentes
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void carregarSeVazio() {
+        // Sem PostgreSQL (perfil jmh, H2) o esquema nasce vazio a cada subida
+        if (!postgres()) {
+            return;
+        }
+        // Várias instâncias subindo juntas: só a primeira a pegar o lock encontra a tabela vazia
+        travar();
+        if (resumoDiarioRepository.contar() == 0) {
+            logger.info("resumo_diario vazio; " + resumoDiarioRepository.recalcular() + " registros calculados a partir de agendamento");
+        }
+    }
+
+    @Transactional
+    public int recalcular() {
+        travar();
+        resumoDiarioRepository.apagarCobertosPorAgendamento();
+        return resumoDiarioRepository.recalcular();
+    }
+
+    @LeituraReplica
+    public List<ResumoPeriodoDto> porPeriodo(Long lavaJatoId, LocalDate inicio, LocalDate fim, Granularidade granularidade) {
+        GradeHorarios grade = lavaJatoRepository.findById(lavaJatoId)
+                .map(GradeHorarios::de)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lava-jato não encontrado."));
+        long capacidadeDiaria = (long) grade.boxes() * grade.quantidadeSlots();
+
+        Map<LocalDate, long[]> quantidades = new LinkedHashMap<>();
+        Map<LocalDate, Double> receitas = new LinkedHashMap<>();
+        for (LocalDate balde = granularidade.inicioDoBalde(inicio); !balde.isAfter(fim); balde = granularidade.proximo(balde)) {
+            quantidades.put(balde, new long[1]);
+            receitas.put(balde, 0.0);
+        }
+        for (ResumoDiario resumo : resumoDiarioRepository.findPeriodo(lavaJatoId, inicio, fim)) {
+            LocalDate balde = granularidade.inicioDoBalde(resumo.getDia());
+            quantidades.get(balde)[0] += resumo.getQuantidade();
+            receitas.merge(balde, resumo.getReceita(), Double::sum);
+        }
+
+        List<ResumoPeriodoDto> periodos = new ArrayList<>(quantidades.size());
+        quantidades.forEach((balde, quantidade) -> {
+            LocalDate de = balde.isBefore(inicio) ? inicio : balde;
+            LocalDate ultimo = granularidade.proximo(balde).minusDays(1);
+            LocalDate ate = ultimo.isAfter(fim) ? fim : ultimo;
+            long capacidade = capacidadeDiaria * (ChronoUnit.DAYS.between(de, ate) + 1);
+            periodos.add(new ResumoPeriodoDto(de, ate, quantidade[0], receitas.get(balde),
+                    capacidade > 0 ? (double) quantidade[0] / capacidade : 0));
+        });
+        return periodos;
+    }
+
+    @LeituraReplica
+    public List<ResumoTipoDto> porTipo(Long lavaJatoId, LocalDate inicio, LocalDate fim) {
+        Map<String, ResumoTipoDto> tipos = new LinkedHashMap<>();
+        for (ResumoDiario resumo : resumoDiarioRepository.findPeriodo(lavaJatoId, inicio, fim)) {
+            tipos.merge(resumo.getServicoTipo(), new ResumoTipoDto(resumo.getServicoTipo(), resumo.getQuantidade(), resumo.getReceita()),
+                    (a, b) -> new ResumoTipoDto(a.servicoTipo(), a.quantidade() + b.quantidade(), a.receita() + b.receita()));
+        }
+        return tipos.values().stream()
+                .sorted((a, b) -> Double.compare(b.receita(), a.receita()))
+                .toList();
+    }
+
+    private boolean postgres() {
+        return "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName()));
+    }
+
+    private void travar() {
+        jdbcTemplate.queryForObject("select pg_advisory_xact_lock(?)", Object.class, LOCK_RESUMO);
+    }
+
+    public enum Granularidade {
+        DIA, SEMANA, MES;
+
+        LocalDate inicioDoBalde(LocalDate dia) {
+            return switch (this) {
+                case DIA -> dia;
+                case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MES -> dia.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate proximo(LocalDate balde) {
+            return switch (this) {
+                case DIA -> balde.plusDays(1);
+                case SEMANA -> balde.plusWeeks(1);
+                case MES -> balde.plusMonths(1);
+            };
+        }
+
+        public static Granularidade de(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Granularidade deve ser dia, semana ou mes.");
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.SenhaEstatisticaDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// bcrypt é caro de propósito. O cálculo roda em um pool próprio, do tamanho do número de
+// núcleos e com fila limitada: numa rajada de logins as threads do Tomcat ficam livres e,
+// com a fila cheia, o request recebe 503 na hora em vez de esperar indefinidamente.
+@Service
+public class SenhaService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int capacidadeFila;
+
+    private final LongAdder rejeitadas = new LongAdder();
+
+    // Conferido quando não há hash (e-mail sem conta), com o mesmo encoder e custo dos hashes reais
+    private final String hashFicticio;
+
+    public SenhaService(PasswordEncoder passwordEncoder,
+                        @Value("${lavexpress.senha.threads:0}") int threads,
+                        @Value("${lavexpress.senha.fila:256}") int capacidadeFila) {
+        this.passwordEncoder = passwordEncoder;
+        this.capacidadeFila = capacidadeFila;
+        this.hashFicticio = passwordEncoder.encode(UUID.randomUUID().toString());
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "hash-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<String> codificar(String senha) {
+        return executar(() -> passwordEncoder.encode(senha));
+    }
+
+    // novoHash vem preenchido quando a senha confere mas o hash gravado está desatualizado. Sem
+    // hash o bcrypt roda do mesmo jeito: o tempo da resposta não revela se o e-mail tem conta
+    public CompletableFuture<Verificacao> verificar(String senha, String hash) {
+        return executar(() -> {
+            if (hash == null) {
+                passwordEncoder.matches(senha, hashFicticio);
+                return new Verificacao(false, null);
+            }
+            if (!passwordEncoder.matches(senha, hash)) {
+                return new Verificacao(false, null);
+            }
+            String novoHash = passwordEncoder.upgradeEncoding(hash) ? passwordEncoder.encode(senha) : null;
+            return new Verificacao(true, novoHash);
+        });
+    }
+
+    public SenhaEstatisticaDto estatisticas() {
+        return new SenhaEstatisticaDto(executor.getPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                capacidadeFila, executor.getCompletedTaskCount(), rejeitadas.sum());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, executor);
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            return CompletableFuture.failedFuture(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Servidor ocupado, tente novamente."));
+        }
+    }
+
+    public record Verificacao(boolean valida, String novoHash) {
+    }
+}
@@ -1,4 +1,126 @@
 package com.lavexpress.laveexpress.services;
 
-public class ServicoService {
+import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.CacheConfig;
+import com.lavexpress.laveexpress.config.LeituraReplica;
+import com.lavexpress.laveexpress.dtos.ServicoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.mappers.ServicoMapper;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ServicoService extends BaseService<Servico> {
+
+    private final ServicoRepository servicoRepository;
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final ServicoMapper mapper;
+
+    private final LocalizacaoIndex localizacaoIndex;
+
+    private final BuscaIndex buscaIndex;
+
+    private final CacheManager cacheManager;
+
+    public ServicoService(ServicoRepository servicoRepository,
+                          LavaJatoRepository lavaJatoRepository,
+                          ServicoMapper mapper,
+                          LocalizacaoIndex localizacaoIndex,
+                          BuscaIndex buscaIndex,
+                          CacheManager cacheManager) {
+        this.servicoRepository = servicoRepository;
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.mapper = mapper;
+        this.localizacaoIndex = localizacaoIndex;
+        this.buscaIndex = buscaIndex;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public BaseRepository<Servico> getRepository() {
+        return servicoRepository;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.SERVICOS, unless = "#result == null")
+    @LeituraReplica
+    public Optional<ServicoDto> buscar(Long id) {
+        return servicoRepository.findById(id).map(mapper::entityToDto);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.SERVICOS_DO_LAVAJATO)
+    @LeituraReplica
+    public List<ServicoDto> listarDoLavaJato(Long lavaJatoId) {
+        return servicoRepository.findDoLavaJato(lavaJatoId).stream()
+                .map(mapper::entityToDto)
+                .toList();
+    }
+
+    // Cadastro do catálogo inteiro de um lava-jato de uma vez
+    public List<Servico> salvarCatalogo(Long lavaJatoId, List<Servico> servicos) {
+        if (!lavaJatoRepository.existsById(lavaJatoId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Lava-jato não encontrado.");
+        }
+        // Itens com id atualizam serviços existentes: só os do próprio lava-jato
+        List<Long> ids = servicos.stream().map(Servico::getId).filter(Objects::nonNull).distinct().toList();
+        if (!ids.isEmpty() && servicoRepository.countDoLavaJato(ids, lavaJatoId) != ids.size()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "O lote tem serviços de outro lava-jato.");
+        }
+        LavaJato lavaJato = lavaJatoRepository.getReferenceById(lavaJatoId);
+        servicos.forEach(servico -> servico.setLavaJato(lavaJato));
+        return saveAll(servicos);
+    }
+
+    @Override
+    protected void aposSalvar(Servico servico) {
+        atualizar(servico.getId(), servico.getLavaJato().getId());
+    }
+
+    @Override
+    protected void aposSalvarTodos(List<Servico> servicos) {
+        Set<Long> lavaJatos = servicos.stream().map(servico -> servico.getLavaJato().getId()).collect(Collectors.toSet());
+        aposCommit(() -> {
+            servicos.forEach(servico -> cacheManager.getCache(CacheConfig.SERVICOS).evict(servico.getId()));
+            cacheManager.getCache(CacheConfig.LAVAJATOS_POR_TIPO).clear();
+            lavaJatos.forEach(lavaJatoId -> {
+                cacheManager.getCache(CacheConfig.SERVICOS_DO_LAVAJATO).evict(lavaJatoId);
+                atualizarIndices(lavaJatoId);
+            });
+        });
+    }
+
+    @Override
+    protected void aposExcluir(Servico servico) {
+        atualizar(servico.getId(), servico.getLavaJato().getId());
+    }
+
+    private void atualizar(Long id, Long lavaJatoId) {
+        aposCommit(() -> {
+            cacheManager.getCache(CacheConfig.SERVICOS).evict(id);
+            cacheManager.getCache(CacheConfig.SERVICOS_DO_LAVAJATO).evict(lavaJatoId);
+            cacheManager.getCache(CacheConfig.LAVAJATOS_POR_TIPO).clear();
+            atualizarIndices(lavaJatoId);
+        });
+    }
+
+    // Uma leitura do catálogo alimenta os dois índices
+    private void atualizarIndices(Long lavaJatoId) {
+        List<Servico> servicos = servicoRepository.findDoLavaJato(lavaJatoId);
+        localizacaoIndex.atualizarTipos(lavaJatoId, servicos.stream().map(Servico::getTipo).distinct().toList());
+        buscaIndex.atualizarServicos(lavaJatoId, servicos);
+    }
 }
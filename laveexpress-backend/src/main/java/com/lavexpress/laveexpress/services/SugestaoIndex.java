@@ -0,0 +1,280 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.MarcaModeloDto;
+import com.lavexpress.laveexpress.dtos.PopularidadeDto;
+import com.lavexpress.laveexpress.dtos.SugestaoDto;
+import com.lavexpress.laveexpress.dtos.TipoServicoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ResumoDiarioRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.VeiculoRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Sugestões da barra de busca a cada tecla: trie imutável com as k sugestões mais populares já
+// calculadas em cada nó, então uma consulta custa o tamanho do prefixo. É reconstruída por
+// inteiro em segundo plano e trocada atomicamente; as leituras nunca esperam a reconstrução.
+@Component
+public class SugestaoIndex {
+
+    public static final int MAXIMO_SUGESTOES = 10;
+
+    // Profundidade da trie: prefixos maiores são cortados (sugestões continuam as do corte)
+    private static final int PROFUNDIDADE_MAXIMA = 32;
+
+    private static final int DIAS_POPULARIDADE = 90;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final LavaJatoRepository lavaJatoRepository;
+
+    private final ServicoRepository servicoRepository;
+
+    private final VeiculoRepository veiculoRepository;
+
+    private final ResumoDiarioRepository resumoDiarioRepository;
+
+    private final AtomicReference<Trie> atual = new AtomicReference<>(Trie.VAZIA);
+
+    public SugestaoIndex(LavaJatoRepository lavaJatoRepository,
+                         ServicoRepository servicoRepository,
+                         VeiculoRepository veiculoRepository,
+                         ResumoDiarioRepository resumoDiarioRepository) {
+        this.lavaJatoRepository = lavaJatoRepository;
+        this.servicoRepository = servicoRepository;
+        this.veiculoRepository = veiculoRepository;
+        this.resumoDiarioRepository = resumoDiarioRepository;
+    }
+
+    public List<SugestaoDto> sugerir(String prefixo, int limite) {
+        List<String> tokens = Texto.tokensDigitados(prefixo);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Trie trie = atual.get();
+        int quantidade = Math.max(1, Math.min(limite, MAXIMO_SUGESTOES));
+        List<SugestaoDto> sugestoes = trie.sugerir(chave(tokens), quantidade);
+        // "lava jato do": a palavra vazia já completa não está nas chaves da trie
+        if (sugestoes.isEmpty() && tokens.size() > 1 && Texto.palavraVazia(tokens.get(tokens.size() - 1))) {
+            sugestoes = trie.sugerir(chave(tokens.subList(0, tokens.size() - 1)), quantidade);
+        }
+        return sugestoes;
+    }
+
+    private static String chave(List<String> tokens) {
+        String chave = String.join(" ", tokens);
+        return chave.length() > PROFUNDIDADE_MAXIMA ? chave.substring(0, PROFUNDIDADE_MAXIMA) : chave;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lavexpress.sugestoes.intervalo-ms:300000}",
+            fixedDelayString = "${lavexpress.sugestoes.intervalo-ms:300000}")
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        List<Entrada> entradas = entradas();
+        Trie trie = Trie.construir(entradas);
+        atual.set(trie);
+        logger.debug("Índice de sugestões reconstruído: " + entradas.size() + " entradas, " + trie.nos() + " nós em "
+                + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+
+    // Popularidade: reservas dos últimos 90 dias (resumo_diario) para lava-jatos e tipos de
+    // serviço, quantidade de veículos cadastrados para marcas e modelos
+    private List<Entrada> entradas() {
+        Map<Long, Long> reservasPorLavaJato = new HashMap<>();
+        Map<String, Long> reservasPorTipo = new HashMap<>();
+        for (PopularidadeDto popularidade : resumoDiarioRepository.findPopularidadeDesde(LocalDate.now().minusDays(DIAS_POPULARIDADE))) {
+            reservasPorLavaJato.merge(popularidade.lavaJatoId(), popularidade.quantidade(), Long::sum);
+            reservasPorTipo.merge(Texto.normalizar(popularidade.servicoTipo()), popularidade.quantidade(), Long::sum);
+        }
+
+        List<Entrada> entradas = new ArrayList<>();
+        for (LavaJato lavaJato : lavaJatoRepository.findAll()) {
+            adicionar(entradas, lavaJato.getNome(), "LAVAJATO", lavaJato.getId(),
+                    1 + reservasPorLavaJato.getOrDefault(lavaJato.getId(), 0L));
+        }
+
+        // Mesmo tipo escrito por vários lava-jatos vira uma sugestão, com a grafia da primeira ocorrência
+        Map<String, Entrada> tipos = new LinkedHashMap<>();
+        for (TipoServicoDto tipo : servicoRepository.findTipos()) {
+            if (tipo.tipo() == null || tipo.tipo().isBlank()) {
+                continue;
+            }
+            String normalizado = Texto.normalizar(tipo.tipo());
+            tipos.merge(normalizado, new Entrada(tipo.tipo().trim(), "SERVICO", null, 1 + reservasPorTipo.getOrDefault(normalizado, 0L)),
+                    (a, b) -> new Entrada(a.texto(), a.categoria(), null, a.peso() + 1));
+        }
+        entradas.addAll(tipos.values());
+
+        Map<String, Entrada> marcas = new LinkedHashMap<>();
+        for (MarcaModeloDto veiculo : veiculoRepository.findMarcasModelos()) {
+            if (veiculo.marca() != null && !veiculo.marca().isBlank()) {
+                marcas.merge(Texto.normalizar(veiculo.marca()), new Entrada(veiculo.marca().trim(), "MARCA", null, veiculo.quantidade()),
+                        (a, b) -> new Entrada(a.texto(), a.categoria(), null, a.peso() + b.peso()));
+            }
+            if (veiculo.modelo() != null && !veiculo.modelo().isBlank()) {
+                String texto = veiculo.marca() == null ? veiculo.modelo().trim() : veiculo.marca().trim() + " " + veiculo.modelo().trim();
+                adicionar(entradas, texto, "MODELO", null, veiculo.quantidade());
+            }
+        }
+        entradas.addAll(marcas.values());
+        return entradas;
+    }
+
+    private static void adicionar(List<Entrada> entradas, String texto, String categoria, Long lavaJatoId, long peso) {
+        if (texto != null && !texto.isBlank()) {
+            entradas.add(new Entrada(texto.trim(), categoria, lavaJatoId, peso));
+        }
+    }
+
+    private record Entrada(String texto, String categoria, Long lavaJatoId, long peso) {
+    }
+
+    // Trie em vetores: os filhos de cada nó ficam contíguos e ordenados (busca binária pelo
+    // caractere), e as sugestões do nó são um trecho de um vetor único de índices de entrada
+    private static final class Trie {
+
+        static final Trie VAZIA = construir(List.of());
+
+        private final char[] rotulos;
+
+        private final int[] primeiroFilho;
+
+        private final int[] quantidadeFilhos;
+
+        private final int[] inicioSugestoes;
+
+        private final int[] sugestoes;
+
+        private final SugestaoDto[] entradas;
+
+        private Trie(char[] rotulos, int[] primeiroFilho, int[] quantidadeFilhos, int[] inicioSugestoes,
+                     int[] sugestoes, SugestaoDto[] entradas) {
+            this.rotulos = rotulos;
+            this.primeiroFilho = primeiroFilho;
+            this.quantidadeFilhos = quantidadeFilhos;
+            this.inicioSugestoes = inicioSugestoes;
+            this.sugestoes = sugestoes;
+            this.entradas = entradas;
+        }
+
+        int nos() {
+            return rotulos.length;
+        }
+
+        List<SugestaoDto> sugerir(String chave, int limite) {
+            int no = 0;
+            for (int i = 0; i < chave.length(); i++) {
+                int inicio = primeiroFilho[no];
+                int posicao = Arrays.binarySearch(rotulos, inicio, inicio + quantidadeFilhos[no], chave.charAt(i));
+                if (posicao < 0) {
+                    return List.of();
+                }
+                no = posicao;
+            }
+            int fim = Math.min(inicioSugestoes[no + 1], inicioSugestoes[no] + limite);
+            List<SugestaoDto> resultado = new ArrayList<>(fim - inicioSugestoes[no]);
+            for (int i = inicioSugestoes[no]; i < fim; i++) {
+                resultado.add(entradas[sugestoes[i]]);
+            }
+            return resultado;
+        }
+
+        // As entradas entram da mais para a menos popular: cada nó fica com as primeiras k que
+        // passam por ele, que já são as k mais populares daquele prefixo
+        static Trie construir(List<Entrada> entradas) {
+            List<Entrada> ordenadas = new ArrayList<>(entradas);
+            ordenadas.sort(Comparator.comparingLong(Entrada::peso).reversed().thenComparing(Entrada::texto));
+
+            No raiz = new No();
+            int total = 1;
+            for (int indice = 0; indice < ordenadas.size(); indice++) {
+                List<String> palavras = Texto.tokens(ordenadas.get(indice).texto());
+                // Uma chave a partir de cada palavra: "centro" encontra "Lava Rápido Centro"
+                for (int p = 0; p < palavras.size(); p++) {
+                    String chave = String.join(" ", palavras.subList(p, palavras.size()));
+                    No no = raiz;
+                    for (int i = 0; i < Math.min(chave.length(), PROFUNDIDADE_MAXIMA); i++) {
+                        No filho = no.filhos.get(chave.charAt(i));
+                        if (filho == null) {
+                            filho = new No();
+                            no.filhos.put(chave.charAt(i), filho);
+                            total++;
+                        }
+                        filho.sugerir(indice);
+                        no = filho;
+                    }
+                }
+            }
+
+            // Numeração em largura: os filhos de um nó recebem índices consecutivos
+            char[] rotulos = new char[total];
+            int[] primeiroFilho = new int[total];
+            int[] quantidadeFilhos = new int[total];
+            int[] inicioSugestoes = new int[total + 1];
+            List<No> fila = new ArrayList<>(total);
+            fila.add(raiz);
+            int quantidadeSugestoes = 0;
+            for (int atual = 0; atual < fila.size(); atual++) {
+                No no = fila.get(atual);
+                primeiroFilho[atual] = fila.size();
+                quantidadeFilhos[atual] = no.filhos.size();
+                no.filhos.forEach((rotulo, filho) -> {
+                    rotulos[fila.size()] = rotulo;
+                    fila.add(filho);
+                });
+                quantidadeSugestoes += no.quantidade;
+            }
+            int[] sugestoes = new int[quantidadeSugestoes];
+            int posicao = 0;
+            for (int atual = 0; atual < fila.size(); atual++) {
+                No no = fila.get(atual);
+                inicioSugestoes[atual] = posicao;
+                System.arraycopy(no.sugestoes, 0, sugestoes, posicao, no.quantidade);
+                posicao += no.quantidade;
+            }
+            inicioSugestoes[total] = posicao;
+
+            SugestaoDto[] dtos = new SugestaoDto[ordenadas.size()];
+            for (int i = 0; i < dtos.length; i++) {
+                Entrada entrada = ordenadas.get(i);
+                dtos[i] = new SugestaoDto(entrada.texto(), entrada.categoria(), entrada.lavaJatoId());
+            }
+            return new Trie(rotulos, primeiroFilho, quantidadeFilhos, inicioSugestoes, sugestoes, dtos);
+        }
+    }
+
+    // Nó da construção; descartado depois de copiado para os vetores
+    private static final class No {
+
+        private final TreeMap<Character, No> filhos = new TreeMap<>();
+
+        private final int[] sugestoes = new int[MAXIMO_SUGESTOES];
+
+        private int quantidade;
+
+        // A mesma entrada chega ao nó por mais de uma palavra; por ordem de inserção ela só
+        // pode repetir a última
+        void sugerir(int indice) {
+            if (quantidade < sugestoes.length && (quantidade == 0 || sugestoes[quantidade - 1] != indice)) {
+                sugestoes[quantidade++] = indice;
+            }
+        }
+    }
+}
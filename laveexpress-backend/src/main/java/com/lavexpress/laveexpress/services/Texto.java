@@ -0,0 +1,61 @@
+package com.lavexpress.laveexpress.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Normalização de texto para busca: minúsculas, sem acento ("Lavação" e "lavacao" são o mesmo
+// termo) e sem as palavras vazias mais comuns do português.
+final class Texto {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "as", "os", "de", "da", "do", "das", "dos", "e", "em", "na", "no", "nas", "nos",
+            "um", "uma", "para", "por", "com", "ao", "aos");
+
+    private Texto() {
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcento.toLowerCase(Locale.ROOT).trim();
+    }
+
+    static List<String> tokens(String texto) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizar(texto))) {
+            if (!token.isEmpty() && !PALAVRAS_VAZIAS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Texto ainda sendo digitado: a última palavra, se não terminou, fica mesmo sendo palavra
+    // vazia, porque pode ser o começo de outra ("e" de "Estética", "do" de "Dourado")
+    static List<String> tokensDigitados(String texto) {
+        List<String> tokens = tokens(texto);
+        if (texto == null || texto.isEmpty() || !Character.isLetterOrDigit(texto.charAt(texto.length() - 1))) {
+            return tokens;
+        }
+        String[] todos = SEPARADORES.split(normalizar(texto));
+        String ultimo = todos.length == 0 ? "" : todos[todos.length - 1];
+        if (PALAVRAS_VAZIAS.contains(ultimo)) {
+            tokens.add(ultimo);
+        }
+        return tokens;
+    }
+
+    static boolean palavraVazia(String token) {
+        return PALAVRAS_VAZIAS.contains(token);
+    }
+}
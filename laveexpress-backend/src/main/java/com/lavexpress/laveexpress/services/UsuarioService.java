@@ -1,25 +1,53 @@
 package com.lavexpress.laveexpress.services;
 
+import com.lavexpress.laveexpress.bases.BaseRepository;
 import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.config.LeituraReplica;
+import com.lavexpress.laveexpress.dtos.PerfilDto;
 import com.lavexpress.laveexpress.dtos.UsuarioDto;
 import com.lavexpress.laveexpress.entities.Usuario;
 import com.lavexpress.laveexpress.mappers.UsuarioMapper;
+import com.lavexpress.laveexpress.mappers.VeiculoMapper;
 import com.lavexpress.laveexpress.repositories.UsuarioRepository;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Service
 public class UsuarioService extends BaseService<Usuario> {
 
     private final UsuarioRepository usuarioRepository;
 
     private final UsuarioMapper mapper;
 
-    public UsuarioService(UsuarioRepository usuarioRepository, UsuarioMapper mapper) {
+    private final VeiculoMapper veiculoMapper;
+
+    private final SenhaService senhaService;
+
+    private final Executor taskExecutor;
+
+    public UsuarioService(UsuarioRepository usuarioRepository,
+                          UsuarioMapper mapper,
+                          VeiculoMapper veiculoMapper,
+                          SenhaService senhaService,
+                          @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.usuarioRepository = usuarioRepository;
         this.mapper = mapper;
+        this.veiculoMapper = veiculoMapper;
+        this.senhaService = senhaService;
+        this.taskExecutor = taskExecutor;
     }
 
     @Override
-    public JpaRepository<Usuario, Long> getRepository() {
+    public BaseRepository<Usuario> getRepository() {
         return usuarioRepository;
     }
 
@@ -28,6 +56,53 @@ public class UsuarioService extends BaseService<Usuario> {
         return usuarioRepository.save(usuario);
     }
 
+    // O hash roda no pool do SenhaService; o insert volta para o executor de tarefas da aplicação
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Usuario> cadastrar(Usuario usuario, String senha) {
+        return senhaService.codificar(senha).thenApplyAsync(hash -> {
+            usuario.setSenha(hash);
+            try {
+                return usuarioRepository.save(usuario);
+            } catch (DataIntegrityViolationException e) {
+                // uk_usuario_email / uk_usuario_cpf
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "E-mail ou CPF já cadastrado.");
+            }
+        }, taskExecutor);
+    }
+
+    // Usuário cuja senha confere, ou vazio. E-mail sem conta também passa pelo bcrypt (SenhaService),
+    // então as duas recusas custam o mesmo. Lê do primário: logo após cadastro ou troca de senha a
+    // réplica pode ainda não ter a linha
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Optional<Usuario>> autenticar(String email, String senha) {
+        Optional<Usuario> usuario = usuarioRepository.findByEmail(email);
+        if (usuario.isEmpty()) {
+            return senhaService.verificar(senha, null).thenApply(verificacao -> Optional.empty());
+        }
+        return verificarSenha(usuario.get(), senha).thenApply(valida -> valida ? usuario : Optional.empty());
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Boolean> verificarSenha(Usuario usuario, String senha) {
+        return senhaService.verificar(senha, usuario.getSenha()).thenCompose(verificacao -> {
+            if (verificacao.novoHash() == null) {
+                return CompletableFuture.completedFuture(verificacao.valida());
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                usuarioRepository.atualizarSenha(usuario.getId(), verificacao.novoHash());
+                return verificacao.valida();
+            }, taskExecutor);
+        });
+    }
+
+    // Usuário e veículos em um único select (left join fetch)
+    @LeituraReplica
+    public Optional<PerfilDto> perfil(Long id) {
+        return usuarioRepository.findPerfil(id)
+                .map(usuario -> new PerfilDto(mapper.entityToResumo(usuario),
+                        usuario.getVeiculos().stream().map(veiculoMapper::entityToDto).toList()));
+    }
+
 
 
 }
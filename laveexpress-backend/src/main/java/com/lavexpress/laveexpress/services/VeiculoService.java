@@ -1,4 +1,47 @@
 package com.lavexpress.laveexpress.services;
 
-public class VeiculoService {
+import com.lavexpress.laveexpress.bases.BaseRepository;
+import com.lavexpress.laveexpress.bases.BaseService;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.entities.Veiculo;
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import com.lavexpress.laveexpress.repositories.VeiculoRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class VeiculoService extends BaseService<Veiculo> {
+
+    private final VeiculoRepository veiculoRepository;
+
+    private final UsuarioRepository usuarioRepository;
+
+    public VeiculoService(VeiculoRepository veiculoRepository, UsuarioRepository usuarioRepository) {
+        this.veiculoRepository = veiculoRepository;
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    @Override
+    public BaseRepository<Veiculo> getRepository() {
+        return veiculoRepository;
+    }
+
+    // Frota inteira de um cliente em lotes de insert
+    public List<Veiculo> salvarFrota(Long usuarioId, List<Veiculo> veiculos) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado.");
+        }
+        // Itens com id atualizam veículos existentes: só os do próprio usuário
+        List<Long> ids = veiculos.stream().map(Veiculo::getId).filter(Objects::nonNull).distinct().toList();
+        if (!ids.isEmpty() && veiculoRepository.countDoUsuario(ids, usuarioId) != ids.size()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "O lote tem veículos de outro usuário.");
+        }
+        Usuario proprietario = usuarioRepository.getReferenceById(usuarioId);
+        veiculos.forEach(veiculo -> veiculo.setProprietario(proprietario));
+        return saveAll(veiculos);
+    }
 }
@@ -0,0 +1,105 @@
+-- Esquema equivalente ao que o ddl-auto gerava. "if not exists" em tudo: bancos que já
+-- existiam antes do Flyway entram pelo baseline (versão 0) e passam por aqui sem alteração.
+
+create sequence if not exists usuario_seq start with 1 increment by 50;
+create sequence if not exists veiculo_seq start with 1 increment by 50;
+create sequence if not exists lava_jato_seq start with 1 increment by 50;
+create sequence if not exists servico_seq start with 1 increment by 50;
+create sequence if not exists agendamento_seq start with 1 increment by 50;
+create sequence if not exists resumo_diario_seq start with 1 increment by 1;
+
+create table if not exists usuario (
+    id bigint not null,
+    nome varchar(255),
+    email varchar(255),
+    senha varchar(255),
+    cpf varchar(255),
+    telefone varchar(255),
+    photo_path varchar(255),
+    constraint usuario_pkey primary key (id)
+);
+
+create table if not exists veiculo (
+    id bigint not null,
+    placa varchar(255),
+    modelo varchar(255),
+    ano varchar(255),
+    marca varchar(255),
+    usuario_id bigint not null,
+    constraint veiculo_pkey primary key (id),
+    constraint fk_veiculo_usuario foreign key (usuario_id) references usuario (id)
+);
+
+create table if not exists lava_jato (
+    id bigint not null,
+    nome varchar(255),
+    endereco varchar(255),
+    telefone varchar(255),
+    email varchar(255),
+    cnpj varchar(255),
+    latitude float(53),
+    longitude float(53),
+    usuario_id bigint,
+    quantidade_boxes integer,
+    horario_abertura time(6),
+    horario_fechamento time(6),
+    duracao_slot_minutos integer,
+    constraint lava_jato_pkey primary key (id),
+    constraint uk_lava_jato_usuario unique (usuario_id),
+    constraint fk_lava_jato_usuario foreign key (usuario_id) references usuario (id)
+);
+
+create table if not exists servico (
+    id bigint not null,
+    descricao varchar(255),
+    tipo varchar(255),
+    valor float(53),
+    lava_jato_id bigint not null,
+    constraint servico_pkey primary key (id),
+    constraint fk_servico_lava_jato foreign key (lava_jato_id) references lava_jato (id)
+);
+
+create table if not exists agendamento (
+    id bigint not null,
+    horario timestamp(6),
+    valor float(53),
+    tipo varchar(255),
+    box integer,
+    servico_id bigint not null,
+    usuario_id bigint not null,
+    lava_jato_id bigint not null,
+    constraint agendamento_pkey primary key (id),
+    constraint uk_agendamento_slot unique (lava_jato_id, horario, box),
+    constraint fk_agendamento_servico foreign key (servico_id) references servico (id),
+    constraint fk_agendamento_usuario foreign key (usuario_id) references usuario (id),
+    constraint fk_agendamento_lava_jato foreign key (lava_jato_id) references lava_jato (id)
+);
+
+create table if not exists resumo_diario (
+    id bigint not null,
+    lava_jato_id bigint not null,
+    dia date not null,
+    servico_tipo varchar(255) not null,
+    quantidade bigint not null,
+    receita float(53) not null,
+    constraint resumo_diario_pkey primary key (id),
+    constraint uk_resumo_diario unique (lava_jato_id, dia, servico_tipo)
+);
+
+-- Tabelas que nasceram com IDENTITY: cada sequência continua depois do maior id já gravado
+do $$
+declare
+    t record;
+    maximo bigint;
+    ultimo bigint;
+begin
+    for t in select * from (values ('usuario_seq', 'usuario'), ('veiculo_seq', 'veiculo'),
+                                   ('lava_jato_seq', 'lava_jato'), ('servico_seq', 'servico'),
+                                   ('agendamento_seq', 'agendamento')) v(sequencia, tabela) loop
+        execute format('select max(id) from %I', t.tabela) into maximo;
+        execute format('select last_value from %I', t.sequencia) into ultimo;
+        if maximo is not null and maximo > ultimo then
+            perform setval(t.sequencia, maximo);
+        end if;
+    end loop;
+end $$;
@@ -0,0 +1,62 @@
+-- agendamento particionada por mês de horario: a agenda do dia e o histórico recente tocam
+-- uma partição, e os índices de cada mês param de crescer quando o mês acaba.
+-- A chave primária precisa conter a chave de partição, por isso (id, horario).
+
+create or replace function criar_particao_agendamento(mes date) returns text
+language plpgsql as $$
+declare
+    inicio date := date_trunc('month', mes)::date;
+    nome text := 'agendamento_p' || to_char(inicio, 'YYYY_MM');
+begin
+    if to_regclass(nome) is null then
+        execute format('create table %I partition of agendamento for values from (%L) to (%L)',
+                       nome, inicio, (inicio + interval '1 month')::date);
+    end if;
+    return nome;
+end $$;
+
+alter table agendamento rename to agendamento_legado;
+alter table agendamento_legado drop constraint if exists uk_agendamento_slot;
+alter table agendamento_legado drop constraint if exists agendamento_pkey;
+
+create table agendamento (
+    id bigint not null,
+    horario timestamp(6) not null,
+    valor float(53),
+    tipo varchar(255),
+    box integer,
+    servico_id bigint not null,
+    usuario_id bigint not null,
+    lava_jato_id bigint not null,
+    constraint agendamento_pkey primary key (id, horario),
+    constraint uk_agendamento_slot unique (lava_jato_id, horario, box),
+    constraint fk_agendamento_servico foreign key (servico_id) references servico (id),
+    constraint fk_agendamento_usuario foreign key (usuario_id) references usuario (id),
+    constraint fk_agendamento_lava_jato foreign key (lava_jato_id) references lava_jato (id)
+) partition by range (horario);
+
+-- Histórico do usuário: em cada partição já sai ordenado por horario, e o Append ordenado
+-- das partições deixa o limit da página parar no mês mais recente que bastar
+create index idx_agendamento_usuario_horario on agendamento (usuario_id, horario);
+
+-- Meses dos dados existentes até três à frente; ManutencaoParticoes estende na subida
+do $$
+declare
+    mes date;
+    ultimo date;
+begin
+    select date_trunc('month', coalesce(min(horario), now()))::date,
+           date_trunc('month', greatest(coalesce(max(horario), now()), now() + interval '3 months'))::date
+    into mes, ultimo
+    from agendamento_legado;
+    while mes <= ultimo loop
+        perform criar_particao_agendamento(mes);
+        mes := (mes + interval '1 month')::date;
+    end loop;
+end $$;
+
+insert into agendamento (id, horario, valor, tipo, box, servico_id, usuario_id, lava_jato_id)
+select id, horario, valor, tipo, box, servico_id, usuario_id, lava_jato_id
+from agendamento_legado;
+
+drop table agendamento_legado;
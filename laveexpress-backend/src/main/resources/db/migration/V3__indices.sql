@@ -0,0 +1,23 @@
+-- Índices derivados das consultas dos repositórios. Chaves estrangeiras só ganham índice
+-- próprio quando nenhum índice existente começa por elas.
+-- Verificados em dev por VerificacaoPlanos (EXPLAIN sem seq scan).
+
+-- Login (findByEmail / findByEmailIn) e unicidade no cadastro
+create unique index if not exists uk_usuario_email on usuario (email);
+create unique index if not exists uk_usuario_cpf on usuario (cpf);
+
+-- Perfil: veículos do usuário (findPerfil)
+create index if not exists idx_veiculo_usuario on veiculo (usuario_id);
+
+-- Importação (findByCnpjIn)
+create unique index if not exists uk_lava_jato_cnpj on lava_jato (cnpj);
+
+-- Catálogo do lava-jato ordenado por tipo (findDoLavaJato, findTiposDoLavaJato, findDosLavaJatos)
+create index if not exists idx_servico_lava_jato_tipo on servico (lava_jato_id, tipo);
+
+-- Lava-jatos que oferecem um tipo (findOferecemTipo)
+create index if not exists idx_servico_tipo on servico (tipo, lava_jato_id);
+
+-- agendamento: (lava_jato_id, horario) já é prefixo de uk_agendamento_slot e usuario_id está
+-- em idx_agendamento_usuario_horario (V2); falta a FK de servico, checada ao excluir serviços
+create index if not exists idx_agendamento_servico on agendamento (servico_id);
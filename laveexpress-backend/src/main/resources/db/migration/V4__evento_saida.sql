@@ -0,0 +1,21 @@
+-- Caixa de saída transacional: eventos gravados na mesma transação da reserva/cancelamento e
+-- entregues depois pelo DespachoEventos (pelo menos uma vez).
+
+create sequence if not exists evento_saida_seq start with 1 increment by 50;
+
+create table evento_saida (
+    id bigint not null,
+    tipo varchar(64) not null,
+    agregado_id bigint not null,
+    payload text not null,
+    status varchar(16) not null,
+    tentativas integer not null,
+    criado_em timestamp(6) with time zone not null,
+    proxima_tentativa timestamp(6) with time zone not null,
+    enviado_em timestamp(6) with time zone,
+    erro varchar(500),
+    constraint evento_saida_pkey primary key (id)
+);
+
+-- Só os pendentes são lidos pelo despacho; os enviados não pesam no índice
+create index idx_evento_saida_pendente on evento_saida (proxima_tentativa) where status = 'PENDENTE';
@@ -0,0 +1,3 @@
+-- Importação: donos procurados por lower(email) (findByEmailMinusculoIn), já que o CSV pode
+-- trazer o e-mail com outra caixa que a do cadastro
+create index if not exists idx_usuario_email_minusculo on usuario (lower(email));
@@ -0,0 +1,3 @@
+-- Papel do usuário (USUARIO ou ADMIN), levado no token. Administradores são promovidos à mão:
+-- update usuario set papel = 'ADMIN' where email = '...';
+alter table usuario add column if not exists papel varchar(16) not null default 'USUARIO';
@@ -0,0 +1,3 @@
+-- Lava-jatos que oferecem um tipo (findOferecemTipo) comparam lower(tipo); idx_servico_tipo,
+-- sobre a coluna crua, não serve. Apontado pelo EXPLAIN de PlanosConsultasTest.
+create index if not exists idx_servico_tipo_minusculo on servico (lower(tipo), lava_jato_id);
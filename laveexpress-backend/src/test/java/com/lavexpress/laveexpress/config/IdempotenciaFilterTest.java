@@ -0,0 +1,162 @@
+package com.lavexpress.laveexpress.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotenciaFilterTest {
+
+    private final IdempotenciaFilter filtro = new IdempotenciaFilter(1000, Duration.ofHours(1), 1024);
+
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    // Devolve 201 ecoando o corpo lido, como um controller que cria o recurso
+    private final FilterChain criar = (request, response) -> {
+        execucoes.incrementAndGet();
+        byte[] corpo = request.getInputStream().readAllBytes();
+        HttpServletResponse resposta = (HttpServletResponse) response;
+        resposta.setStatus(201);
+        resposta.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        resposta.setHeader(HttpHeaders.LOCATION, "/api/agendamentos/" + execucoes.get());
+        response.getOutputStream().write(("{\"eco\":" + new String(corpo, StandardCharsets.UTF_8) + "}").getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    void repeticaoRecebeARespostaGravada() throws Exception {
+        MockHttpServletResponse primeira = executar(requisicao("k1", "{\"box\":1}"), criar);
+        MockHttpServletResponse segunda = executar(requisicao("k1", "{\"box\":1}"), criar);
+
+        assertThat(execucoes).hasValue(1);
+        assertThat(primeira.getStatus()).isEqualTo(201);
+        assertThat(primeira.getHeader(IdempotenciaFilter.HEADER_REPETIDA)).isNull();
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(segunda.getHeader(IdempotenciaFilter.HEADER_REPETIDA)).isEqualTo("true");
+        assertThat(segunda.getHeader(HttpHeaders.LOCATION)).isEqualTo("/api/agendamentos/1");
+        assertThat(segunda.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(segunda.getContentAsString()).isEqualTo(primeira.getContentAsString()).isEqualTo("{\"eco\":{\"box\":1}}");
+    }
+
+    @Test
+    void mesmaChaveComOutroCorpoEhRecusada() throws Exception {
+        executar(requisicao("k1", "{\"box\":1}"), criar);
+        MockHttpServletResponse outra = executar(requisicao("k1", "{\"box\":2}"), criar);
+
+        assertThat(execucoes).hasValue(1);
+        assertThat(outra.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void chavesDiferentesExecutamCadaUma() throws Exception {
+        executar(requisicao("k1", "{\"box\":1}"), criar);
+        executar(requisicao("k2", "{\"box\":1}"), criar);
+
+        assertThat(execucoes).hasValue(2);
+    }
+
+    @Test
+    void repeticaoDuranteAPrimeiraExecucaoRecebe409() throws Exception {
+        MockHttpServletResponse[] concorrente = new MockHttpServletResponse[1];
+        executar(requisicao("k1", "{}"), (request, response) -> {
+            concorrente[0] = executar(requisicao("k1", "{}"), criar);
+            criar.doFilter(request, response);
+        });
+
+        assertThat(concorrente[0].getStatus()).isEqualTo(409);
+        assertThat(concorrente[0].getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(execucoes).hasValue(1);
+    }
+
+    @Test
+    void respostaDeErroNaoFicaGravada() throws Exception {
+        executar(requisicao("k1", "{}"), (request, response) -> {
+            execucoes.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        });
+        MockHttpServletResponse segunda = executar(requisicao("k1", "{}"), criar);
+
+        assertThat(execucoes).hasValue(2);
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(segunda.getHeader(IdempotenciaFilter.HEADER_REPETIDA)).isNull();
+    }
+
+    @Test
+    void errorNaExecucaoLiberaAChave() throws Exception {
+        assertThatThrownBy(() -> executar(requisicao("k1", "{}"), (request, response) -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+
+        MockHttpServletResponse segunda = executar(requisicao("k1", "{}"), criar);
+
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(execucoes).hasValue(1);
+    }
+
+    @Test
+    void corpoGrandeDemaisEhRecusado() throws Exception {
+        MockHttpServletResponse resposta = executar(requisicao("k1", "\"" + "x".repeat(2000) + "\""), criar);
+
+        assertThat(resposta.getStatus()).isEqualTo(413);
+        assertThat(execucoes).hasValue(0);
+    }
+
+    @Test
+    void corpoPodeSerLidoSemBloquear() throws Exception {
+        ByteArrayOutputStream lido = new ByteArrayOutputStream();
+        boolean[] fim = new boolean[1];
+        executar(requisicao("k1", "{\"box\":3}"), (request, response) -> {
+            ServletInputStream entrada = request.getInputStream();
+            entrada.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[4];
+                    while (entrada.isReady() && !entrada.isFinished()) {
+                        lido.write(buffer, 0, entrada.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    fim[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertThat(lido.toString(StandardCharsets.UTF_8)).isEqualTo("{\"box\":3}");
+        assertThat(fim[0]).isTrue();
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest request, FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest requisicao(String chave, String corpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/agendamentos");
+        request.addHeader(IdempotenciaFilter.HEADER, chave);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
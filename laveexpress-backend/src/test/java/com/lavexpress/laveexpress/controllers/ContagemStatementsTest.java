@@ -0,0 +1,197 @@
+package com.lavexpress.laveexpress.controllers;
+
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.entities.Veiculo;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import com.lavexpress.laveexpress.repositories.VeiculoRepository;
+import com.lavexpress.laveexpress.security.TokenService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statements por request nas telas com plano de busca próprio (agenda, histórico, perfil),
+// contados pelo ContadorStatements em modo estrito: um N+1 derruba o request com 500. Cada
+// tela roda com poucas e com muitas linhas, e o total tem de ser o mesmo. O SQL não depende de
+// recursos do PostgreSQL, então roda no H2 com o esquema do ddl-auto, como o perfil jmh.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lavexpress-contagem;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "lavexpress.token.chaves.k1=Y29udGFnZW0tc3RhdGVtZW50cy10ZXN0ZS1jaGF2ZS0zMg==",
+        "lavexpress.fotos.diretorio=${java.io.tmpdir}/lavexpress-fotos-teste",
+        "lavexpress.threads.monitor-pinning.habilitado=false",
+        "lavexpress.eventos.despacho.habilitado=false",
+        "lavexpress.jpa.contagem-statements.habilitada=true",
+        "lavexpress.jpa.contagem-statements.estrito=true",
+        "lavexpress.jpa.contagem-statements.limite-padrao=10"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContagemStatementsTest {
+
+    private static final int MUITOS = 30;
+
+    private static final LocalDate DIA_COM_UM = LocalDate.of(2030, 3, 4);
+
+    private static final LocalDate DIA_COM_MUITOS = LocalDate.of(2030, 3, 5);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LavaJatoRepository lavaJatoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private VeiculoRepository veiculoRepository;
+
+    private Usuario poucos;
+
+    private Usuario muitos;
+
+    private LavaJato lavaJato;
+
+    private String tokenPoucos;
+
+    private String tokenMuitos;
+
+    // Cada linha com usuário, serviço e lava-jato próprios: associação carregada por linha apareceria na contagem
+    @BeforeAll
+    void carregar() {
+        poucos = usuarioRepository.save(usuario(0));
+        muitos = usuarioRepository.save(usuario(1));
+        lavaJato = lavaJatoRepository.save(lavaJato(0, poucos));
+        Servico servico = servicoRepository.save(new Servico("Lavagem simples", "simples", 40.0, lavaJato));
+        agendamentoRepository.save(agendamento(servico, poucos, lavaJato, DIA_COM_UM, 0));
+        veiculoRepository.save(new Veiculo(null, "AAA0000", "Onix", "2022", "Chevrolet", poucos));
+
+        List<Veiculo> veiculos = new ArrayList<>();
+        for (int i = 0; i < MUITOS; i++) {
+            Usuario cliente = usuarioRepository.save(usuario(i + 2));
+            LavaJato outro = lavaJatoRepository.save(lavaJato(i + 1, cliente));
+            Servico doLavaJato = servicoRepository.save(new Servico("Lavagem " + i, "tipo-" + i, 40.0 + i, lavaJato));
+            Servico doOutro = servicoRepository.save(new Servico("Polimento " + i, "polimento", 90.0, outro));
+            agendamentoRepository.save(agendamento(doLavaJato, cliente, lavaJato, DIA_COM_MUITOS, i));
+            agendamentoRepository.save(agendamento(doOutro, muitos, outro, DIA_COM_MUITOS, i));
+            veiculos.add(new Veiculo(null, String.format("BBB%04d", i), "Gol", "2020", "Volkswagen", muitos));
+        }
+        veiculoRepository.saveAll(veiculos);
+        tokenPoucos = tokenService.emitir(poucos).token();
+        tokenMuitos = tokenService.emitir(muitos).token();
+    }
+
+    // Um statement para a verificação de proprietário e outro para a agenda
+    @Test
+    void agendaDoDiaEmDoisStatements() throws Exception {
+        mockMvc.perform(autenticado(get("/api/agendamentos/agenda")
+                        .param("lavaJatoId", lavaJato.getId().toString()).param("dia", DIA_COM_UM.toString())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(autenticado(get("/api/agendamentos/agenda")
+                        .param("lavaJatoId", lavaJato.getId().toString()).param("dia", DIA_COM_MUITOS.toString())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(MUITOS));
+
+        conferirStatements("AgendamentoController.agenda", 2, 2);
+    }
+
+    @Test
+    void historicoEmUmStatement() throws Exception {
+        mockMvc.perform(autenticado(get("/api/agendamentos/historico"), tokenPoucos))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(autenticado(get("/api/agendamentos/historico").param("tamanho", String.valueOf(MUITOS)), tokenMuitos))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(MUITOS));
+
+        conferirStatements("AgendamentoController.historico", 2, 1);
+    }
+
+    @Test
+    void perfilComVeiculosEmUmStatement() throws Exception {
+        mockMvc.perform(autenticado(get("/api/usuarios/{id}/perfil", poucos.getId()), tokenPoucos))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.veiculos.length()").value(1));
+        mockMvc.perform(autenticado(get("/api/usuarios/{id}/perfil", muitos.getId()), tokenMuitos))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.veiculos.length()").value(MUITOS))
+                .andExpect(jsonPath("$.usuario.cpf").doesNotExist());
+
+        conferirStatements("UsuarioController.perfil", 2, 1);
+    }
+
+    // Total de cada request registrado na métrica do endpoint
+    private void conferirStatements(String endpoint, long requests, double porRequest) {
+        DistributionSummary resumo = meterRegistry.get("lavexpress.jpa.statements").tag("endpoint", endpoint).summary();
+        assertThat(resumo.count()).isEqualTo(requests);
+        assertThat(resumo.max()).isEqualTo(porRequest);
+        assertThat(resumo.totalAmount()).isEqualTo(requests * porRequest);
+    }
+
+    private MockHttpServletRequestBuilder autenticado(MockHttpServletRequestBuilder request) {
+        return autenticado(request, tokenPoucos);
+    }
+
+    private static MockHttpServletRequestBuilder autenticado(MockHttpServletRequestBuilder request, String token) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static Usuario usuario(int i) {
+        return new Usuario(null, "Cliente " + i, "cliente" + i + "@lavexpress.com", "{noop}x",
+                String.format("%011d", i), "(61) 99999-0000", null, new ArrayList<>());
+    }
+
+    private static LavaJato lavaJato(int i, Usuario proprietario) {
+        LavaJato lavaJato = new LavaJato(null, "Lava " + i, "Rua " + i, "(61) 3333-0000", "lava" + i + "@lavexpress.com",
+                String.format("%014d", i), proprietario);
+        lavaJato.setQuantidadeBoxes(MUITOS);
+        return lavaJato;
+    }
+
+    private static Agendamento agendamento(Servico servico, Usuario usuario, LavaJato lavaJato, LocalDate dia, int box) {
+        Agendamento agendamento = new Agendamento(dia.atTime(9, 0), servico.getValor(), servico.getTipo(), servico, usuario, lavaJato);
+        agendamento.setBox(box + 1);
+        return agendamento;
+    }
+}
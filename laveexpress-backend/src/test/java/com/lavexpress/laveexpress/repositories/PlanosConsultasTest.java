@@ -0,0 +1,201 @@
+package com.lavexpress.laveexpress.repositories;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// EXPLAIN do SQL que o Hibernate gera de fato para as consultas quentes, num PostgreSQL com as
+// migrações aplicadas. Cada consulta roda uma vez com um StatementInspector capturando o SQL; o
+// plano é o genérico (sem valores nos parâmetros) com enable_seqscan desligado: se ainda assim há
+// Seq Scan, ou um índice lido inteiro sem Index Cond, falta índice para aquela consulta.
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "lavexpress.token.chaves.k1=cGxhbm9zLWNvbnN1bHRhcy10ZXN0ZS1jaGF2ZS0zMi1ieXRlcw==",
+        "lavexpress.fotos.diretorio=${java.io.tmpdir}/lavexpress-fotos-teste"
+})
+class PlanosConsultasTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void banco(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LavaJatoRepository lavaJatoRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private ResumoDiarioRepository resumoDiarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void consultasQuentesUsamIndice() {
+        LocalDateTime agora = LocalDateTime.now().withNano(0);
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("UsuarioRepository.findByEmail", () -> usuarioRepository.findByEmail("a@a"));
+        consultas.put("UsuarioRepository.findByEmailMinusculoIn", () -> usuarioRepository.findByEmailMinusculoIn(Set.of("a@a", "b@b")));
+        consultas.put("UsuarioRepository.findPerfil", () -> usuarioRepository.findPerfil(1L));
+        consultas.put("LavaJatoRepository.findByCnpjIn", () -> lavaJatoRepository.findByCnpjIn(Set.of("0", "1")));
+        consultas.put("LavaJatoRepository.findByProprietarioIdIn", () -> lavaJatoRepository.findByProprietarioIdIn(Set.of(1L, 2L)));
+        consultas.put("LavaJatoRepository.findOferecemTipo", () -> lavaJatoRepository.findOferecemTipo("simples"));
+        consultas.put("ServicoRepository.findDoLavaJato", () -> servicoRepository.findDoLavaJato(1L));
+        consultas.put("ServicoRepository.findTiposDoLavaJato", () -> servicoRepository.findTiposDoLavaJato(1L));
+        consultas.put("ServicoRepository.findDosLavaJatos", () -> servicoRepository.findDosLavaJatos(Set.of(1L, 2L)));
+        consultas.put("AgendamentoRepository.findBoxesOcupados", () -> agendamentoRepository.findBoxesOcupados(1L, agora));
+        consultas.put("AgendamentoRepository.findAgenda",
+                () -> agendamentoRepository.findAgenda(1L, agora, agora.plusDays(1)));
+        consultas.put("AgendamentoRepository.findHistorico",
+                () -> agendamentoRepository.findHistorico(1L, PageRequest.of(0, 20)));
+        consultas.put("AgendamentoRepository.findExportacaoApos",
+                () -> agendamentoRepository.findExportacaoApos(1L, agora.minusDays(365), 0, agora, PageRequest.ofSize(1000)));
+        consultas.put("AgendamentoRepository.findReceitaDiaria",
+                () -> agendamentoRepository.findReceitaDiaria(1L, agora.minusDays(30), agora));
+        consultas.put("ResumoDiarioRepository.findPeriodo",
+                () -> resumoDiarioRepository.findPeriodo(1L, LocalDate.now().minusDays(30), LocalDate.now()));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> problemas = new ArrayList<>();
+        consultas.forEach((nome, consulta) -> {
+            List<String> sqls = transactionTemplate.execute(status -> {
+                CapturaSql.iniciar();
+                try {
+                    consulta.run();
+                    return CapturaSql.capturados();
+                } finally {
+                    CapturaSql.parar();
+                }
+            });
+            assertThat(sqls).as("SQL capturado de %s", nome).isNotEmpty();
+            for (String sql : sqls) {
+                List<String> varreduras = transactionTemplate.execute(status -> varreduras(sql));
+                if (!varreduras.isEmpty()) {
+                    problemas.add(nome + ": " + String.join(", ", varreduras) + "\n    " + sql);
+                }
+            }
+        });
+        assertThat(problemas).as("Consultas sem índice utilizável (criar migração em db/migration)").isEmpty();
+    }
+
+    // PREPARE + EXECUTE com plan_cache_mode = force_generic_plan: o plano não depende dos valores,
+    // então os parâmetros vão como null só para preencher a chamada
+    private List<String> varreduras(String sql) {
+        int parametros = 0;
+        StringBuilder preparado = new StringBuilder();
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                preparado.append('$').append(++parametros);
+            } else {
+                preparado.append(c);
+            }
+        }
+        jdbcTemplate.execute("set local enable_seqscan = off");
+        jdbcTemplate.execute("set local plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("prepare consulta_verificada as " + preparado);
+        try {
+            String plano = jdbcTemplate.queryForObject("explain (format json) execute consulta_verificada("
+                    + String.join(", ", Collections.nCopies(parametros, "null")) + ")", String.class);
+            List<String> encontradas = new ArrayList<>();
+            procurarVarreduras(objectMapper.readTree(plano).get(0).get("Plan"), encontradas);
+            return encontradas;
+        } catch (Exception e) {
+            throw new IllegalStateException("Plano ilegível para " + sql, e);
+        } finally {
+            jdbcTemplate.execute("deallocate consulta_verificada");
+        }
+    }
+
+    private static void procurarVarreduras(JsonNode no, List<String> varreduras) {
+        String tipo = no.path("Node Type").asText();
+        String relacao = no.path("Relation Name").asText();
+        if (tipo.equals("Seq Scan")) {
+            varreduras.add("Seq Scan em " + relacao);
+        } else if ((tipo.equals("Index Scan") || tipo.equals("Index Only Scan")) && !no.has("Index Cond")) {
+            varreduras.add("índice " + no.path("Index Name").asText() + " lido inteiro em " + relacao);
+        }
+        for (JsonNode filho : no.path("Plans")) {
+            procurarVarreduras(filho, varreduras);
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        HibernatePropertiesCustomizer capturaSqlCustomizer() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CapturaSql());
+        }
+    }
+
+    static class CapturaSql implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURADOS = new ThreadLocal<>();
+
+        static void iniciar() {
+            CAPTURADOS.set(new ArrayList<>());
+        }
+
+        static List<String> capturados() {
+            return List.copyOf(CAPTURADOS.get());
+        }
+
+        static void parar() {
+            CAPTURADOS.remove();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> capturados = CAPTURADOS.get();
+            if (capturados != null) {
+                capturados.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.lavexpress.laveexpress.security;
+
+import com.lavexpress.laveexpress.security.LimitadorTaxa.Dimensao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LimitadorTaxaTest {
+
+    private static final LimiteTaxaProperties.Regra LOGIN_POR_IP =
+            new LimiteTaxaProperties.Regra(List.of("/api/login", "/api/auth/login"), "POST", Dimensao.IP, 6, Duration.ofHours(1), 3);
+
+    private static final LimiteTaxaProperties.Regra LOGIN_POR_EMAIL =
+            new LimiteTaxaProperties.Regra(List.of("/api/auth/login"), "POST", Dimensao.EMAIL, 1, Duration.ofHours(1), 2);
+
+    @Test
+    void aceitaARajadaEDepoisPedeEspera() {
+        LimitadorTaxa limitador = limitador(Map.of("login", LOGIN_POR_IP));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limitador.consumir(login(), Dimensao.IP, "10.0.0.1")).isZero();
+        }
+        Duration espera = limitador.consumir(login(), Dimensao.IP, "10.0.0.1");
+
+        // 6 por hora: uma ficha a cada 10 minutos
+        assertThat(espera).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(10)).isGreaterThan(Duration.ofMinutes(9));
+        assertThat(limitador.consumir(login(), Dimensao.IP, "10.0.0.2")).isZero();
+    }
+
+    @Test
+    void recusadaNaoConsomeFicha() {
+        LimitadorTaxa limitador = limitador(Map.of("rapida",
+                new LimiteTaxaProperties.Regra(List.of("/api/login"), null, Dimensao.IP, 4, Duration.ofSeconds(1), 1)));
+
+        assertThat(limitador.consumir(login(), Dimensao.IP, "10.0.0.1")).isZero();
+        for (int i = 0; i < 20; i++) {
+            assertThat(limitador.consumir(login(), Dimensao.IP, "10.0.0.1")).isPositive();
+        }
+        // Uma ficha a cada 250 ms: as recusadas acima não empurraram a próxima para depois
+        aguardar(Duration.ofMillis(300));
+        assertThat(limitador.consumir(login(), Dimensao.IP, "10.0.0.1")).isZero();
+    }
+
+    @Test
+    void soContaRotaEMetodoDaRegra() {
+        LimitadorTaxa limitador = limitador(Map.of("login", LOGIN_POR_IP));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limitador.consumir(new MockHttpServletRequest("GET", "/api/login"), Dimensao.IP, "10.0.0.1")).isZero();
+            assertThat(limitador.consumir(new MockHttpServletRequest("POST", "/api/usuarios"), Dimensao.IP, "10.0.0.1")).isZero();
+            assertThat(limitador.consumir(login(), Dimensao.USUARIO, "10.0.0.1")).isZero();
+        }
+        assertThat(limitador.chaves()).isZero();
+    }
+
+    @Test
+    void emailIgnoraCaixaEEspacos() {
+        LimitadorTaxa limitador = limitador(Map.of("email", LOGIN_POR_EMAIL));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+
+        assertThat(limitador.consumir(request, Dimensao.EMAIL, "ana@x.com")).isZero();
+        assertThat(limitador.consumir(request, Dimensao.EMAIL, " ANA@x.com")).isZero();
+        assertThat(limitador.consumir(request, Dimensao.EMAIL, "Ana@X.com ")).isPositive();
+    }
+
+    @Test
+    void variasRegrasDevolvemAMaiorEspera() {
+        LimitadorTaxa limitador = limitador(Map.of("ip", LOGIN_POR_IP, "email", LOGIN_POR_EMAIL,
+                "ip-lenta", new LimiteTaxaProperties.Regra(List.of("/api/auth/**"), null, Dimensao.IP, 1, Duration.ofDays(1), 1)));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+
+        assertThat(limitador.consumir(request, Dimensao.IP, "10.0.0.1")).isZero();
+        Duration espera = limitador.consumir(request, Dimensao.IP, "10.0.0.1");
+
+        assertThat(espera).isGreaterThan(Duration.ofHours(23));
+    }
+
+    @Test
+    void verificarLancaComRetryAfterEmSegundos() {
+        LimitadorTaxa limitador = limitador(Map.of("email", LOGIN_POR_EMAIL));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        limitador.verificar(request, Dimensao.EMAIL, "ana@x.com");
+        limitador.verificar(request, Dimensao.EMAIL, "ana@x.com");
+
+        assertThatThrownBy(() -> limitador.verificar(request, Dimensao.EMAIL, "ana@x.com"))
+                .isInstanceOfSatisfying(LimiteExcedidoException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(429);
+                    assertThat(Long.parseLong(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(3500L, 3600L);
+                });
+    }
+
+    @Test
+    void desabilitadoOuSemValorNaoLimita() {
+        LimitadorTaxa desabilitado = new LimitadorTaxa(new LimiteTaxaProperties(false, 1000, Map.of("login", LOGIN_POR_IP)));
+        LimitadorTaxa habilitado = limitador(Map.of("login", LOGIN_POR_IP));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(desabilitado.consumir(login(), Dimensao.IP, "10.0.0.1")).isZero();
+            assertThat(habilitado.consumir(login(), Dimensao.IP, " ")).isZero();
+            assertThat(habilitado.consumir(login(), Dimensao.IP, null)).isZero();
+        }
+    }
+
+    @Test
+    void regraIncompletaNaoSobe() {
+        assertThatThrownBy(() -> limitador(Map.of("quebrada",
+                new LimiteTaxaProperties.Regra(List.of("/api/login"), null, Dimensao.IP, 0, Duration.ofMinutes(1), 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("lavexpress.limite-taxa.regras.quebrada");
+    }
+
+    @Test
+    void concorrenciaNaoAceitaMaisQueARajada() throws Exception {
+        LimitadorTaxa limitador = limitador(Map.of("login",
+                new LimiteTaxaProperties.Regra(List.of("/api/login"), null, Dimensao.IP, 1, Duration.ofHours(1), 50)));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tarefas.add(() -> {
+                    int aceitas = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limitador.consumir(login(), Dimensao.IP, "10.0.0.1").isZero()) {
+                            aceitas++;
+                        }
+                    }
+                    return aceitas;
+                });
+            }
+            int total = 0;
+            for (Future<Integer> futuro : executor.invokeAll(tarefas)) {
+                total += futuro.get();
+            }
+            assertThat(total).isEqualTo(50);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static LimitadorTaxa limitador(Map<String, LimiteTaxaProperties.Regra> regras) {
+        return new LimitadorTaxa(new LimiteTaxaProperties(true, 1000, regras));
+    }
+
+    private static MockHttpServletRequest login() {
+        return new MockHttpServletRequest("POST", "/api/login");
+    }
+
+    private static void aguardar(Duration tempo) {
+        try {
+            Thread.sleep(tempo.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.entities.Agendamento;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.mappers.AgendamentoMapper;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AgendamentoServiceTest {
+
+    private static final int BOXES = 3;
+
+    private static final int THREADS = 16;
+
+    private static final LocalDateTime HORARIO = LocalDate.now().plusDays(1).atTime(10, 0);
+
+    private final AgendamentoRepository agendamentoRepository = mock(AgendamentoRepository.class);
+
+    private final LavaJatoRepository lavaJatoRepository = mock(LavaJatoRepository.class);
+
+    private final ServicoRepository servicoRepository = mock(ServicoRepository.class);
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    // Tabela agendamento com a uk_agendamento_slot: (lava-jato, horário, box) -> id
+    private final Map<String, Long> slots = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @BeforeEach
+    void preparar() {
+        LavaJato lavaJato = new LavaJato(1L, "Lava 1", null, null, null, "1", null);
+        lavaJato.setQuantidadeBoxes(BOXES);
+        Servico servico = new Servico("Lavagem simples", "simples", 40.0, lavaJato);
+        servico.setId(10L);
+        when(lavaJatoRepository.findById(1L)).thenReturn(Optional.of(lavaJato));
+        when(servicoRepository.findById(10L)).thenReturn(Optional.of(servico));
+        when(usuarioRepository.findById(anyLong())).thenAnswer(invocacao ->
+                Optional.of(new Usuario(invocacao.getArgument(0), "Cliente", null, null, null, null, null, new ArrayList<>())));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(agendamentoRepository.findBoxesOcupados(1L, HORARIO)).thenAnswer(invocacao -> boxesOcupados());
+        when(agendamentoRepository.saveAndFlush(any(Agendamento.class))).thenAnswer(invocacao -> inserir(invocacao.getArgument(0)));
+    }
+
+    @Test
+    void mesmoHorarioAceitaSoACapacidade() throws Exception {
+        AgendamentoService agendamentoService = instancia();
+
+        List<Object> resultados = disputar(List.of(agendamentoService));
+
+        assertThat(resultados).filteredOn(Agendamento.class::isInstance).hasSize(BOXES)
+                .extracting(r -> ((Agendamento) r).getBox()).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(resultados).filteredOn(r -> !(r instanceof Agendamento)).hasSize(THREADS - BOXES)
+                .allSatisfy(r -> assertThat(r).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(slots).hasSize(BOXES);
+    }
+
+    @Test
+    void duasInstanciasNaoPassamDaCapacidade() throws Exception {
+        // Cada instância tem os próprios locks: entre elas quem segura é a constraint, e o
+        // conflito no insert volta para uma nova leitura dos boxes
+        List<Object> resultados = disputar(List.of(instancia(), instancia()));
+
+        assertThat(resultados).filteredOn(Agendamento.class::isInstance).hasSize(BOXES)
+                .extracting(r -> ((Agendamento) r).getBox()).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(resultados).filteredOn(r -> !(r instanceof Agendamento)).hasSize(THREADS - BOXES)
+                .allSatisfy(r -> assertThat(r).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(slots).hasSize(BOXES);
+    }
+
+    @Test
+    void conflitoNoInsertLeDeNovoEPegaOutroBox() {
+        // Outra instância gravou o box 1 depois da leitura: a primeira tentativa ainda o vê livre
+        slots.put(chave(1), 99L);
+        AtomicInteger leituras = new AtomicInteger();
+        when(agendamentoRepository.findBoxesOcupados(1L, HORARIO))
+                .thenAnswer(invocacao -> leituras.getAndIncrement() == 0 ? List.of() : boxesOcupados());
+
+        Agendamento agendamento = instancia().agendar(1L, 10L, 7L, HORARIO);
+
+        assertThat(agendamento.getBox()).isEqualTo(2);
+        verify(agendamentoRepository, times(2)).saveAndFlush(any(Agendamento.class));
+    }
+
+    // Todas as threads liberadas juntas, alternando entre as instâncias; devolve o agendamento
+    // ou o status da recusa de cada uma
+    private List<Object> disputar(List<AgendamentoService> instancias) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Callable<Object>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                AgendamentoService agendamentoService = instancias.get(t % instancias.size());
+                long usuarioId = t;
+                tarefas.add(() -> {
+                    largada.await();
+                    try {
+                        return agendamentoService.agendar(1L, 10L, usuarioId, HORARIO);
+                    } catch (ResponseStatusException e) {
+                        return e.getStatusCode();
+                    }
+                });
+            }
+            List<Future<Object>> futuros = new ArrayList<>();
+            for (Callable<Object> tarefa : tarefas) {
+                futuros.add(executor.submit(tarefa));
+            }
+            largada.countDown();
+            List<Object> resultados = new ArrayList<>();
+            for (Future<Object> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AgendamentoService instancia() {
+        return new AgendamentoService(agendamentoRepository, lavaJatoRepository, servicoRepository, usuarioRepository,
+                mock(AgendamentoMapper.class), mock(DisponibilidadeIndex.class), mock(ResumoService.class),
+                mock(EventoSaidaService.class), mock(AgendaAoVivo.class), mock(NotificacoesBanco.class),
+                transactionManager, 5000, 12);
+    }
+
+    private List<Integer> boxesOcupados() {
+        List<Integer> boxes = new ArrayList<>();
+        for (int box = 1; box <= BOXES; box++) {
+            if (slots.containsKey(chave(box))) {
+                boxes.add(box);
+            }
+        }
+        // Janela entre a leitura e o insert, para as instâncias se cruzarem
+        Thread.yield();
+        return boxes;
+    }
+
+    private Agendamento inserir(Agendamento agendamento) {
+        long id = sequencia.incrementAndGet();
+        if (slots.putIfAbsent(chave(agendamento.getBox()), id) != null) {
+            throw new DataIntegrityViolationException("uk_agendamento_slot");
+        }
+        agendamento.setId(id);
+        return agendamento;
+    }
+
+    private static String chave(int box) {
+        return "1/" + HORARIO + "/" + box;
+    }
+}
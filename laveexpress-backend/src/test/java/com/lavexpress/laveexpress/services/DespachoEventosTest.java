@@ -0,0 +1,188 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.entities.EventoSaida;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DespachoEventosTest {
+
+    private static final String ENVIADOS = "update evento_saida set status = ?, enviado_em = now(), erro = null where id = ?";
+
+    private static final String REAGENDADOS = "update evento_saida set proxima_tentativa = now() + make_interval(secs => ?), erro = ? where id = ?";
+
+    private static final String FALHAS = "update evento_saida set status = ?, erro = ? where id = ?";
+
+    private static final String DEVOLVIDOS = "update evento_saida set proxima_tentativa = now(), tentativas = tentativas - 1 where id = ?";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    // Lotes que a reserva devolve, um por chamada
+    private final Deque<List<Linha>> reservas = new ArrayDeque<>();
+
+    private final List<Object> parametrosReserva = new ArrayList<>();
+
+    private final Map<String, List<Object[]>> atualizacoes = new LinkedHashMap<>();
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    private DespachoEventos despacho;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        despacho.encerrar();
+    }
+
+    @Test
+    void enviadosSaemDaFila() {
+        reservas.add(List.of(evento(1, 1), evento(2, 1)));
+        despacho = criar((id, tipo, payload) -> {
+        }, 4, 100, Duration.ofSeconds(60));
+
+        despacho.despachar();
+
+        assertThat(atualizacoes).containsOnlyKeys(ENVIADOS);
+        assertThat(atualizacoes.get(ENVIADOS)).extracting(p -> p[1]).containsExactly(1L, 2L);
+        assertThat(atualizacoes.get(ENVIADOS)).extracting(p -> p[0]).containsOnly(EventoSaida.ENVIADO);
+        assertThat(parametrosReserva).containsExactly(60L, EventoSaida.PENDENTE, 100);
+    }
+
+    @Test
+    void falhaVoltaComEsperaExponencial() {
+        reservas.add(List.of(evento(1, 1), evento(2, 3)));
+        despacho = criar((id, tipo, payload) -> {
+            throw new IllegalStateException("fora do ar");
+        }, 4, 100, Duration.ofSeconds(60));
+
+        despacho.despachar();
+
+        List<Object[]> reagendados = atualizacoes.get(REAGENDADOS);
+        assertThat(reagendados).extracting(p -> p[2]).containsExactly(1L, 2L);
+        assertThat(reagendados).extracting(p -> p[1]).containsOnly("IllegalStateException: fora do ar");
+        // espera-inicial 5s dobrando a cada tentativa, ±20%
+        assertThat((double) reagendados.get(0)[0]).isCloseTo(5.0, within(1.0));
+        assertThat((double) reagendados.get(1)[0]).isCloseTo(20.0, within(4.0));
+    }
+
+    @Test
+    void esperaNaoPassaDoMaximo() {
+        reservas.add(List.of(evento(1, 9)));
+        despacho = criar((id, tipo, payload) -> {
+            throw new IllegalStateException("fora do ar");
+        }, 4, 100, Duration.ofSeconds(60));
+
+        despacho.despachar();
+
+        assertThat((double) atualizacoes.get(REAGENDADOS).get(0)[0]).isCloseTo(600.0, within(120.0));
+    }
+
+    @Test
+    void desisteAposMaximoDeTentativas() {
+        reservas.add(List.of(evento(1, 10)));
+        despacho = criar((id, tipo, payload) -> {
+            throw new IllegalStateException("fora do ar");
+        }, 4, 100, Duration.ofSeconds(60));
+
+        despacho.despachar();
+
+        assertThat(atualizacoes).containsOnlyKeys(FALHAS);
+        assertThat(atualizacoes.get(FALHAS).get(0)).containsExactly(EventoSaida.FALHOU, "IllegalStateException: fora do ar", 1L);
+    }
+
+    @Test
+    void envioQueEstouraOLeaseEhReagendado() {
+        reservas.add(List.of(evento(1, 1)));
+        despacho = criar((id, tipo, payload) -> liberar.await(), 4, 100, Duration.ofMillis(200));
+
+        despacho.despachar();
+
+        assertThat(atualizacoes.get(REAGENDADOS)).extracting(p -> p[1]).containsExactly("Tempo de envio esgotado");
+    }
+
+    @Test
+    void loteRecusadoPeloPoolVoltaParaAFila() {
+        // Uma thread e fila de 2: o primeiro lote estoura o lease com a thread presa num envio que
+        // ignora interrupção e a tarefa cancelada ainda ocupando a fila; o segundo não cabe
+        reservas.add(List.of(evento(1, 1), evento(2, 1)));
+        reservas.add(List.of(evento(3, 1), evento(4, 1)));
+        despacho = criar((id, tipo, payload) -> {
+            while (true) {
+                try {
+                    liberar.await();
+                    return;
+                } catch (InterruptedException e) {
+                    // segue preso até o fim do teste
+                }
+            }
+        }, 1, 2, Duration.ofMillis(200));
+
+        despacho.despachar();
+
+        assertThat(atualizacoes.get(REAGENDADOS)).extracting(p -> p[2]).containsExactly(1L, 2L);
+        assertThat(atualizacoes.get(DEVOLVIDOS)).extracting(p -> p[0]).containsExactly(3L, 4L);
+        assertThat(reservas).isEmpty();
+    }
+
+    private DespachoEventos criar(EnviadorEventos enviador, int threads, int tamanhoLote, Duration lease) {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocacao -> {
+            Object[] argumentos = invocacao.getArguments();
+            parametrosReserva.clear();
+            parametrosReserva.addAll(List.of(argumentos).subList(2, argumentos.length));
+            RowMapper<?> mapper = invocacao.getArgument(1);
+            List<Object> lote = new ArrayList<>();
+            List<Linha> linhas = reservas.isEmpty() ? List.of() : reservas.poll();
+            for (int i = 0; i < linhas.size(); i++) {
+                lote.add(mapper.mapRow(resultSet(linhas.get(i)), i));
+            }
+            return lote;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocacao -> {
+            List<Object[]> parametros = invocacao.getArgument(1);
+            atualizacoes.computeIfAbsent(invocacao.getArgument(0), sql -> new ArrayList<>()).addAll(parametros);
+            return new int[parametros.size()];
+        });
+        return new DespachoEventos(jdbcTemplate, transactionManager, enviador, threads, tamanhoLote, 10, lease,
+                Duration.ofSeconds(5), Duration.ofMinutes(10));
+    }
+
+    private static Linha evento(long id, int tentativas) {
+        return new Linha(id, tentativas);
+    }
+
+    private static ResultSet resultSet(Linha linha) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(linha.id());
+        when(rs.getString("tipo")).thenReturn("agendamento.criado");
+        when(rs.getString("payload")).thenReturn("{}");
+        when(rs.getInt("tentativas")).thenReturn(linha.tentativas());
+        return rs;
+    }
+
+    private record Linha(long id, int tentativas) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.HorarioDisponivelDto;
+import com.lavexpress.laveexpress.dtos.SlotOcupadoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DisponibilidadeIndexTest {
+
+    private static final LocalDate AMANHA = LocalDate.now().plusDays(1);
+
+    private final AgendamentoRepository agendamentoRepository = mock(AgendamentoRepository.class);
+
+    private final LavaJatoRepository lavaJatoRepository = mock(LavaJatoRepository.class);
+
+    private final DisponibilidadeIndex index = new DisponibilidadeIndex(agendamentoRepository, lavaJatoRepository);
+
+    // O que está no banco no momento da reconstrução
+    private final List<SlotOcupadoDto> noBanco = new ArrayList<>();
+
+    // Roda entre a leitura do banco e a troca do estado
+    private Runnable durante = () -> {
+    };
+
+    @Test
+    void reconstrucaoCarregaOcupacaoDoBanco() {
+        prepararBanco();
+        noBanco.add(slot(10, 9, 0));
+        noBanco.add(slot(11, 9, 0));
+
+        index.reconstruir();
+
+        assertThat(vagas(LocalTime.of(9, 0))).isZero();
+        assertThat(vagas(LocalTime.of(9, 30))).isEqualTo(2);
+    }
+
+    @Test
+    void reconciliacaoDescartaReservaQueNaoEstaMaisNoBanco() {
+        prepararBanco();
+        index.reconstruir();
+        // Cancelamento em outra instância cujo aviso não chegou: só a reconciliação corrige
+        index.registrar(slot(10, 9, 0));
+        assertThat(vagas(LocalTime.of(9, 0))).isEqualTo(1);
+
+        index.reconstruir();
+
+        assertThat(vagas(LocalTime.of(9, 0))).isEqualTo(2);
+    }
+
+    @Test
+    void alteracaoDuranteAReconstrucaoEhReaplicadaNoNovoEstado() {
+        prepararBanco();
+        index.reconstruir();
+        // A reserva chega depois da leitura do banco e antes da troca
+        durante = () -> index.registrar(slot(20, 10, 0));
+        noBanco.add(slot(10, 9, 0));
+
+        index.reconstruir();
+
+        assertThat(vagas(LocalTime.of(9, 0))).isEqualTo(1);
+        assertThat(vagas(LocalTime.of(10, 0))).isEqualTo(1);
+    }
+
+    @Test
+    void remocaoDuranteAReconstrucaoEhReaplicadaNoNovoEstado() {
+        prepararBanco();
+        durante = () -> index.remover(10L);
+        noBanco.add(slot(10, 9, 0));
+
+        index.reconstruir();
+
+        assertThat(vagas(LocalTime.of(9, 0))).isEqualTo(2);
+    }
+
+    private void prepararBanco() {
+        LavaJato lavaJato = mock(LavaJato.class);
+        when(lavaJato.getId()).thenReturn(1L);
+        when(lavaJato.getQuantidadeBoxes()).thenReturn(2);
+        when(lavaJato.getHorarioAbertura()).thenReturn(LocalTime.of(8, 0));
+        when(lavaJato.getHorarioFechamento()).thenReturn(LocalTime.of(18, 0));
+        when(lavaJato.getDuracaoSlotMinutos()).thenReturn(30);
+        when(lavaJatoRepository.findAll()).thenReturn(List.of(lavaJato));
+        when(agendamentoRepository.findSlotsOcupadosDesde(any())).thenAnswer(invocacao -> {
+            List<SlotOcupadoDto> lidos = List.copyOf(noBanco);
+            durante.run();
+            return lidos;
+        });
+    }
+
+    private int vagas(LocalTime horario) {
+        return index.disponiveis(1L, AMANHA).stream()
+                .filter(h -> h.horario().equals(horario))
+                .mapToInt(HorarioDisponivelDto::vagas)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private static SlotOcupadoDto slot(long id, int hora, int minuto) {
+        return new SlotOcupadoDto(id, 1L, AMANHA.atTime(hora, minuto));
+    }
+}
@@ -0,0 +1,83 @@
+package com.lavexpress.laveexpress.services;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lavexpress.laveexpress.dtos.AgendamentoExportadoDto;
+import com.lavexpress.laveexpress.dtos.ReceitaDiariaDto;
+import com.lavexpress.laveexpress.repositories.AgendamentoRepository;
+import com.lavexpress.laveexpress.services.ExportacaoService.Formato;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportacaoServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+
+    private final AgendamentoRepository agendamentoRepository = mock(AgendamentoRepository.class);
+
+    // Datas em ISO, como no ObjectMapper do Spring Boot
+    private final ExportacaoService exportacaoService = new ExportacaoService(agendamentoRepository,
+            Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+
+    @Test
+    void agendamentosSaemEmPaginasPorKeyset() throws IOException {
+        // 2500 reservas, duas por horário (boxes 1 e 2): três páginas, a última incompleta
+        List<AgendamentoExportadoDto> todos = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            todos.add(new AgendamentoExportadoDto((long) i, INICIO.atStartOfDay().plusMinutes(30L * (i / 2)), 1 + i % 2,
+                    "Simples", 50.0, 7L, "Ana"));
+        }
+        when(agendamentoRepository.findExportacaoApos(eq(1L), any(), anyInt(), any(), any())).thenAnswer(invocacao -> {
+            LocalDateTime horario = invocacao.getArgument(1);
+            int box = invocacao.getArgument(2);
+            Pageable pagina = invocacao.getArgument(4);
+            return todos.stream()
+                    .filter(a -> a.horario().isAfter(horario) || a.horario().equals(horario) && a.box() > box)
+                    .limit(pagina.getPageSize())
+                    .toList();
+        });
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportarAgendamentos(1L, INICIO, INICIO.plusMonths(1), Formato.CSV, saida);
+
+        List<String> linhas = saida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(linhas).hasSize(2501);
+        assertThat(linhas.get(0)).isEqualTo("id,horario,box,servico_tipo,valor,usuario_id,usuario_nome");
+        assertThat(linhas.subList(1, linhas.size())).extracting(linha -> Long.valueOf(linha.substring(0, linha.indexOf(','))))
+                .containsExactlyElementsOf(todos.stream().map(AgendamentoExportadoDto::id).toList());
+        verify(agendamentoRepository, times(3)).findExportacaoApos(eq(1L), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void receitaConsultaUmMesPorVez() throws IOException {
+        when(agendamentoRepository.findReceitaDiaria(eq(1L), any(), any())).thenAnswer(invocacao -> {
+            LocalDateTime inicio = invocacao.getArgument(1);
+            return List.of(new ReceitaDiariaDto(inicio.toLocalDate(), "Simples", 2L, 100.0));
+        });
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportarReceita(1L, LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 20), Formato.JSON, saida);
+
+        verify(agendamentoRepository).findReceitaDiaria(1L, LocalDateTime.of(2025, 1, 15, 0, 0), LocalDateTime.of(2025, 2, 15, 0, 0));
+        verify(agendamentoRepository).findReceitaDiaria(1L, LocalDateTime.of(2025, 2, 15, 0, 0), LocalDateTime.of(2025, 3, 15, 0, 0));
+        verify(agendamentoRepository).findReceitaDiaria(1L, LocalDateTime.of(2025, 3, 15, 0, 0), LocalDateTime.of(2025, 3, 21, 0, 0));
+        assertThat(saida.toString(StandardCharsets.UTF_8)).startsWith("[{\"dia\":").contains("\"2025-03-15\"").endsWith("}]");
+    }
+}
@@ -0,0 +1,185 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.ErroImportacaoDto;
+import com.lavexpress.laveexpress.dtos.ImportacaoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.entities.Servico;
+import com.lavexpress.laveexpress.entities.Usuario;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImportacaoServiceTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+
+    private final LavaJatoRepository lavaJatoRepository = mock(LavaJatoRepository.class);
+
+    private final ServicoRepository servicoRepository = mock(ServicoRepository.class);
+
+    private final UsuarioService usuarioService = mock(UsuarioService.class);
+
+    private final LavaJatoService lavaJatoService = mock(LavaJatoService.class);
+
+    private final ServicoService servicoService = mock(ServicoService.class);
+
+    private final List<Servico> servicosGravados = new ArrayList<>();
+
+    private ImportacaoService importacaoService;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong ids = new AtomicLong();
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        when(usuarioRepository.findByEmailMinusculoIn(any())).thenReturn(List.of());
+        when(usuarioRepository.getReferenceById(anyLong())).thenAnswer(invocacao -> {
+            Usuario usuario = new Usuario();
+            usuario.setId(invocacao.getArgument(0));
+            return usuario;
+        });
+        when(usuarioService.saveAll(any())).thenAnswer(invocacao -> {
+            Collection<Usuario> usuarios = invocacao.getArgument(0);
+            usuarios.forEach(u -> u.setId(ids.incrementAndGet()));
+            return List.copyOf(usuarios);
+        });
+
+        when(lavaJatoRepository.findByCnpjIn(any())).thenReturn(List.of());
+        when(lavaJatoRepository.findByProprietarioIdIn(any())).thenReturn(List.of());
+        when(lavaJatoRepository.getReferenceById(anyLong())).thenAnswer(invocacao -> {
+            LavaJato lavaJato = new LavaJato();
+            lavaJato.setId(invocacao.getArgument(0));
+            return lavaJato;
+        });
+        when(lavaJatoService.saveAll(any())).thenAnswer(invocacao -> {
+            Collection<LavaJato> lavaJatos = invocacao.getArgument(0);
+            lavaJatos.forEach(l -> l.setId(ids.incrementAndGet()));
+            return List.copyOf(lavaJatos);
+        });
+
+        when(servicoRepository.findDosLavaJatos(any())).thenReturn(List.of());
+        when(servicoService.saveAll(any())).thenAnswer(invocacao -> {
+            Collection<Servico> servicos = invocacao.getArgument(0);
+            servicosGravados.addAll(servicos);
+            return List.copyOf(servicos);
+        });
+
+        importacaoService = new ImportacaoService(usuarioRepository, lavaJatoRepository, servicoRepository,
+                usuarioService, lavaJatoService, servicoService, transactionManager, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importacaoService.encerrar();
+    }
+
+    @Test
+    void linhasInvalidasViramErroSemDerrubarAsDemais() throws InterruptedException {
+        ImportacaoDto resultado = importar("""
+                cnpj;nome;proprietario_email;servico_tipo;servico_valor;latitude;longitude
+                111;Lava A;ana@x.com;Simples;50;;
+                222;Lava B;bia.sem.arroba;Simples;40;;
+                333;Lava C;caio@x.com;Simples;-1;;
+                444;Lava D;dani@x.com;Simples;30;91;10
+                555;Lava E;eva@x.com;Simples;30;-10;
+                666;;fabio@x.com;Simples;10;;
+                777;Lava G;gui@x.com;Simples;dez;;
+                111;Lava A;ana@x.com;Completa;80,50;;
+                """);
+
+        assertThat(resultado.status()).isEqualTo("CONCLUIDA");
+        assertThat(resultado.linhasLidas()).isEqualTo(8);
+        assertThat(resultado.importadas()).isEqualTo(2);
+        assertThat(resultado.comErro()).isEqualTo(6);
+        assertThat(resultado.erros()).extracting(ErroImportacaoDto::linha).containsExactly(3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(resultado.erros()).extracting(ErroImportacaoDto::mensagem).containsExactly(
+                "proprietario_email inválido: bia.sem.arroba",
+                "servico_valor inválido",
+                "Coordenadas inválidas",
+                "Coordenadas inválidas",
+                "Coluna nome vazia",
+                "servico_valor não é numérico: dez");
+        assertThat(servicosGravados).extracting(Servico::getTipo, Servico::getValor)
+                .containsExactly(tuple("Simples", 50.0), tuple("Completa", 80.5));
+    }
+
+    @Test
+    void segundoCnpjDoMesmoDonoEhRecusadoSoNaLinha() throws InterruptedException {
+        ImportacaoDto resultado = importar("""
+                cnpj,nome,proprietario_email,servico_tipo,servico_valor
+                111,Lava A,ana@x.com,Simples,50
+                222,Lava B,ANA@x.com,Simples,40
+                333,Lava C,bia@x.com,Simples,30
+                """);
+
+        assertThat(resultado.status()).isEqualTo("CONCLUIDA");
+        assertThat(resultado.importadas()).isEqualTo(2);
+        assertThat(resultado.erros()).containsExactly(
+                new ErroImportacaoDto(3, "Proprietário ana@x.com já tem o lava-jato de CNPJ 111"));
+        assertThat(servicosGravados).extracting(Servico::getValor).containsExactly(50.0, 30.0);
+    }
+
+    @Test
+    void donoQueJaTemLavaJatoNoBancoNaoGanhaOutro() throws InterruptedException {
+        Usuario ana = new Usuario();
+        ana.setId(10L);
+        ana.setEmail("Ana@X.com");
+        when(usuarioRepository.findByEmailMinusculoIn(any())).thenReturn(List.of(ana));
+        LavaJato existente = new LavaJato(20L, "Lava A", null, null, null, "111", ana);
+        when(lavaJatoRepository.findByProprietarioIdIn(any())).thenReturn(List.of(existente));
+
+        ImportacaoDto resultado = importar("""
+                cnpj,nome,proprietario_email,servico_tipo,servico_valor
+                999,Lava Z,ana@x.com,Simples,50
+                """);
+
+        assertThat(resultado.importadas()).isZero();
+        assertThat(resultado.erros()).containsExactly(
+                new ErroImportacaoDto(2, "Proprietário ana@x.com já tem o lava-jato de CNPJ 111"));
+        assertThat(servicosGravados).isEmpty();
+    }
+
+    @Test
+    void semColunaObrigatoriaFalhaAImportacao() throws InterruptedException {
+        ImportacaoDto resultado = importar("""
+                cnpj,nome,servico_tipo,servico_valor
+                111,Lava A,Simples,50
+                """);
+
+        assertThat(resultado.status()).isEqualTo("FALHOU");
+        assertThat(resultado.mensagem()).isEqualTo("Colunas obrigatórias ausentes: proprietario_email");
+    }
+
+    private ImportacaoDto importar(String csv) throws InterruptedException {
+        String id = importacaoService.iniciar(new MockMultipartFile("arquivo", "redes.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8))).id();
+        for (int i = 0; i < 500; i++) {
+            ImportacaoDto dto = importacaoService.buscar(id).orElseThrow();
+            if (dto.fim() != null) {
+                return dto;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Importação não terminou");
+    }
+}
@@ -0,0 +1,176 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.TipoServicoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocalizacaoIndexTest {
+
+    private static final double LATITUDE = -23.55;
+
+    private static final double LONGITUDE = -46.63;
+
+    private final LavaJatoRepository lavaJatoRepository = mock(LavaJatoRepository.class);
+
+    private final ServicoRepository servicoRepository = mock(ServicoRepository.class);
+
+    private final LocalizacaoIndex localizacaoIndex = new LocalizacaoIndex(lavaJatoRepository, servicoRepository);
+
+    @Test
+    void ordenaPorDistanciaDentroDoRaio() {
+        carregarExemplo();
+
+        List<LocalizacaoIndex.Resultado> resultado = localizacaoIndex.proximos(LATITUDE, LONGITUDE, 50, 10, null);
+
+        assertThat(resultado).extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(resultado.get(0).distanciaKm()).isZero();
+        assertThat(resultado.get(1).distanciaKm()).isCloseTo(2.22, within(0.01));
+        assertThat(resultado.get(2).distanciaKm()).isCloseTo(10.2, within(0.1));
+        assertThat(resultado.get(3).distanciaKm()).isCloseTo(33.4, within(0.1));
+        assertThat(localizacaoIndex.proximos(LATITUDE, LONGITUDE, 5, 10, null))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void limitaAosKMaisProximos() {
+        carregarExemplo();
+
+        assertThat(localizacaoIndex.proximos(LATITUDE, LONGITUDE, 50, 2, null))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void filtraPorTipoSemDiferenciarCaixaOuEspacos() {
+        carregarExemplo();
+
+        assertThat(localizacaoIndex.proximos(LATITUDE, LONGITUDE, 50, 10, " SIMPLES"))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    void mesmoResultadoQueForcaBruta() {
+        Random random = new Random(42);
+        List<LavaJato> lavaJatos = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            lavaJatos.add(lavaJato(id, LATITUDE + (random.nextDouble() - 0.5), LONGITUDE + (random.nextDouble() - 0.5)));
+        }
+        when(lavaJatoRepository.findAll()).thenReturn(lavaJatos);
+        when(servicoRepository.findTipos()).thenReturn(List.of());
+        localizacaoIndex.reconstruir();
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            double latitude = LATITUDE + (random.nextDouble() - 0.5);
+            double longitude = LONGITUDE + (random.nextDouble() - 0.5);
+            double raioKm = 1 + random.nextDouble() * 30;
+            int k = 1 + random.nextInt(20);
+
+            List<Long> esperado = lavaJatos.stream()
+                    .filter(l -> LocalizacaoIndex.haversine(latitude, longitude, l.getLatitude(), l.getLongitude()) <= raioKm)
+                    .sorted(Comparator.comparingDouble(l -> LocalizacaoIndex.haversine(latitude, longitude, l.getLatitude(), l.getLongitude())))
+                    .limit(k)
+                    .map(LavaJato::getId)
+                    .toList();
+            assertThat(localizacaoIndex.proximos(latitude, longitude, raioKm, k, null))
+                    .extracting(LocalizacaoIndex.Resultado::lavaJatoId)
+                    .as("consulta %d (%f, %f, raio %f, k %d)", consulta, latitude, longitude, raioKm, k)
+                    .containsExactlyElementsOf(esperado);
+        }
+    }
+
+    @Test
+    void lavaJatoNovoTrazOsTiposDoBanco() {
+        carregarExemplo();
+        when(servicoRepository.findTiposDoLavaJato(6L)).thenReturn(List.of("Simples"));
+
+        localizacaoIndex.atualizar(lavaJato(6L, LATITUDE + 0.001, LONGITUDE));
+
+        assertThat(localizacaoIndex.proximos(LATITUDE, LONGITUDE, 1, 10, "simples"))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(1L, 6L);
+    }
+
+    @Test
+    void atualizacaoDeLavaJatoJaIndexadoMantemOsTipos() {
+        carregarExemplo();
+
+        localizacaoIndex.atualizar(lavaJato(2L, LATITUDE - 0.3, LONGITUDE));
+
+        verify(servicoRepository, never()).findTiposDoLavaJato(2L);
+        assertThat(localizacaoIndex.proximos(LATITUDE - 0.3, LONGITUDE, 1, 10, "completa"))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(2L);
+    }
+
+    @Test
+    void semCoordenadasSaiDoIndice() {
+        carregarExemplo();
+
+        localizacaoIndex.atualizar(lavaJato(1L, null, null));
+
+        assertThat(localizacaoIndex.proximos(LATITUDE, LONGITUDE, 5, 10, null))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(2L);
+    }
+
+    @Test
+    void alteracaoDuranteAReconstrucaoEntraNoIndiceNovo() {
+        carregarExemplo();
+        // Lava-jato 2 muda de lugar entre a leitura do banco e a troca do índice
+        when(lavaJatoRepository.findAll()).thenAnswer(invocacao -> {
+            localizacaoIndex.atualizar(lavaJato(2L, LATITUDE - 0.3, LONGITUDE));
+            return List.of(lavaJato(1L, LATITUDE, LONGITUDE), lavaJato(2L, LATITUDE + 0.02, LONGITUDE));
+        });
+
+        localizacaoIndex.reconstruir();
+
+        assertThat(localizacaoIndex.proximos(LATITUDE, LONGITUDE, 5, 10, null))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(1L);
+        assertThat(localizacaoIndex.proximos(LATITUDE - 0.3, LONGITUDE, 1, 10, "completa"))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(2L);
+    }
+
+    @Test
+    void reconciliacaoDescartaLavaJatoQueSaiuDoBanco() {
+        carregarExemplo();
+        when(lavaJatoRepository.findAll()).thenReturn(List.of(lavaJato(2L, LATITUDE + 0.02, LONGITUDE)));
+
+        localizacaoIndex.reconstruir();
+
+        assertThat(localizacaoIndex.proximos(LATITUDE, LONGITUDE, 50, 10, null))
+                .extracting(LocalizacaoIndex.Resultado::lavaJatoId).containsExactly(2L);
+    }
+
+    private void carregarExemplo() {
+        when(lavaJatoRepository.findAll()).thenReturn(List.of(
+                lavaJato(1L, LATITUDE, LONGITUDE),
+                lavaJato(2L, LATITUDE + 0.02, LONGITUDE),
+                lavaJato(3L, LATITUDE, LONGITUDE + 0.1),
+                lavaJato(4L, LATITUDE - 0.3, LONGITUDE),
+                lavaJato(5L, null, null)));
+        when(servicoRepository.findTipos()).thenReturn(List.of(
+                new TipoServicoDto(1L, "Simples"),
+                new TipoServicoDto(2L, "Completa"),
+                new TipoServicoDto(3L, "Simples "),
+                new TipoServicoDto(4L, "simples"),
+                new TipoServicoDto(5L, "Simples")));
+        localizacaoIndex.reconstruir();
+    }
+
+    private static LavaJato lavaJato(Long id, Double latitude, Double longitude) {
+        LavaJato lavaJato = new LavaJato(id, "Lava " + id, null, null, null, String.valueOf(id), null);
+        lavaJato.setLatitude(latitude);
+        lavaJato.setLongitude(longitude);
+        return lavaJato;
+    }
+}
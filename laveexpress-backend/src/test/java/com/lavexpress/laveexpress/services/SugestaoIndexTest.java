@@ -0,0 +1,64 @@
+package com.lavexpress.laveexpress.services;
+
+import com.lavexpress.laveexpress.dtos.SugestaoDto;
+import com.lavexpress.laveexpress.dtos.TipoServicoDto;
+import com.lavexpress.laveexpress.entities.LavaJato;
+import com.lavexpress.laveexpress.repositories.LavaJatoRepository;
+import com.lavexpress.laveexpress.repositories.ResumoDiarioRepository;
+import com.lavexpress.laveexpress.repositories.ServicoRepository;
+import com.lavexpress.laveexpress.repositories.VeiculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SugestaoIndexTest {
+
+    private final LavaJatoRepository lavaJatoRepository = mock(LavaJatoRepository.class);
+
+    private final ServicoRepository servicoRepository = mock(ServicoRepository.class);
+
+    private final SugestaoIndex sugestaoIndex = new SugestaoIndex(lavaJatoRepository, servicoRepository,
+            mock(VeiculoRepository.class), mock(ResumoDiarioRepository.class));
+
+    @BeforeEach
+    void carregar() {
+        when(lavaJatoRepository.findAll()).thenReturn(List.of(
+                new LavaJato(1L, "Auto Brilho", null, null, null, "1", null),
+                new LavaJato(2L, "Lava Jato do Zé", null, null, null, "2", null),
+                new LavaJato(3L, "Dourado Lavagens", null, null, null, "3", null)));
+        when(servicoRepository.findTipos()).thenReturn(List.of(
+                new TipoServicoDto(1L, "Estética"),
+                new TipoServicoDto(1L, "Polimento"),
+                new TipoServicoDto(2L, "Completa")));
+        sugestaoIndex.reconstruir();
+    }
+
+    @Test
+    void primeiraLetraQueEhPalavraVaziaJaSugere() {
+        assertThat(textos("a")).containsExactly("Auto Brilho");
+        assertThat(textos("E")).containsExactly("Estética");
+        assertThat(textos("do")).containsExactly("Dourado Lavagens");
+        assertThat(textos("co")).containsExactly("Completa");
+    }
+
+    @Test
+    void palavraVaziaCompletaNoMeioEhIgnorada() {
+        assertThat(textos("lava jato do z")).containsExactly("Lava Jato do Zé");
+        assertThat(textos("lava jato do")).containsExactly("Lava Jato do Zé");
+    }
+
+    @Test
+    void soPalavrasVaziasTerminadasNaoSugerem() {
+        assertThat(textos("de ")).isEmpty();
+        assertThat(textos("  ")).isEmpty();
+    }
+
+    private List<String> textos(String prefixo) {
+        return sugestaoIndex.sugerir(prefixo, 10).stream().map(SugestaoDto::texto).toList();
+    }
+}